@@ -2,7 +2,12 @@ package org.game;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.game.model.*;
+import org.game.model.clock.GameClock;
+import org.game.model.clock.RealTimeClock;
+import org.game.model.clock.SimulationClock;
 import org.game.ui.BoardUI;
+import org.game.ui.GameView;
+import org.game.ui.HeadlessView;
 import org.game.utils.ActionDelegator;
 import org.game.utils.KeyboardInputManager;
 import org.game.utils.ReplayManager;
@@ -20,6 +25,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class Main {
     public static void main(String[] args) throws Exception {
@@ -34,15 +42,27 @@ public class Main {
 
         if(root.getMode().equals("new")){
             RunOverviewWriter runOverviewWriter = new RunOverviewWriter(root.getGameName());
+            // every game has its own board, players and clock, so up to parallelGames of them can run at the same time
+            ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, root.getParallelGames()));
+            List<Future<?>> runningGames = new ArrayList<>();
+            // the keyboard input reads System.in until it is closed, so only a single game shown on screen can have it
+            boolean keyboardInput = !root.isHeadless() && root.getGames().size() == 1;
             int gameNumber = 1;
             for (GameParams gameParams : root.getGames()){
-                System.out.println("Starting a new game");
-                CountDownLatch latch = new CountDownLatch(1);
                 String gameName = root.getGameName() + "_" + gameNumber;
-                runOnce(gameParams, latch, gameName, root.getGameName(), runOverviewWriter);
-                latch.await();
+                runningGames.add(executor.submit(() -> {
+                    System.out.println("Starting a new game");
+                    CountDownLatch latch = new CountDownLatch(1);
+                    runOnce(gameParams, latch, gameName, root.getGameName(), runOverviewWriter, createClock(root.getClock()), root.isHeadless(), keyboardInput);
+                    latch.await();
+                    return null;
+                }));
                 gameNumber++;
             }
+            for (Future<?> runningGame : runningGames){
+                runningGame.get();
+            }
+            executor.shutdown();
             System.out.println("All games finished");
         }
         else if(root.getMode().equals("replay")){
@@ -85,49 +105,71 @@ public class Main {
         }
     }
 
-    private static void runOnce(GameParams gameParams, CountDownLatch latch, String gameName, String folderName, RunOverviewWriter runOverviewWriter) {
+    private static GameClock createClock(String clock){
+        return switch (clock) {
+            case "real" -> new RealTimeClock();
+            case "simulated" -> new SimulationClock();
+            default -> throw new RuntimeException("Unknown clock: " + clock);
+        };
+    }
+
+    private static void runOnce(GameParams gameParams, CountDownLatch latch, String gameName, String folderName, RunOverviewWriter runOverviewWriter, GameClock clock, boolean headless, boolean keyboardInput) {
 
+        // no game time may pass before the game has been set up and all players have started
+        clock.register();
         try {
-            Game game = new Game(gameParams.getNumberOfPlayers(), gameParams.getAiPlayers());
-            // all setup must finish before starting the game
-            CountDownLatch setupLatch = new CountDownLatch(1);
-            SwingUtilities.invokeLater(() -> {
-
-                List<Pawn> allPawns = game.getBoard().getPawns();
-                BoardUI boardUI = new BoardUI(game.getBoard());
-                ActionWriter actionWriter = new ActionWriter(folderName, gameName, gameParams, allPawns);
-                ActionDelegator actionDelegator = new ActionDelegator(game, boardUI, actionWriter);
-                game.giveActionDelegatorToAIPlayers(actionDelegator);
-
-                game.setTimerFinishCallback(() -> {
-                    actionWriter.close();
-                    game.endGame();
-                    System.out.println("Game has ended, you have lost.");
-                    runOverviewWriter.writeGameResult(gameParams, false);
-                    SwingUtilities.invokeLater(boardUI::dispose); // Close the window
-                    latch.countDown();
-                });
-
-                game.setGameWonCallback(() -> {
-                    actionWriter.close();
-                    game.endGame();
-                    System.out.println("Congratulations! You have won the game.");
-                    runOverviewWriter.writeGameResult(gameParams, true);
-                    SwingUtilities.invokeLater(boardUI::dispose); // Close the window
-                    latch.countDown();
+            Game game = new Game(gameParams.getNumberOfPlayers(), gameParams.getAiPlayers(), clock, gameParams.getBoardSize());
+            if(headless){
+                // nothing to render, so there is no need to go through the EDT
+                setUpGame(game, new HeadlessView(), gameParams, latch, gameName, folderName, runOverviewWriter, false);
+            }
+            else{
+                // all setup must finish before starting the game
+                CountDownLatch setupLatch = new CountDownLatch(1);
+                SwingUtilities.invokeLater(() -> {
+                    setUpGame(game, new BoardUI(game.getBoard()), gameParams, latch, gameName, folderName, runOverviewWriter, keyboardInput);
+                    setupLatch.countDown(); // Signal that setup is complete
                 });
-
-                new KeyboardInputManager(actionDelegator);
-                setupLatch.countDown(); // Signal that setup is complete
-            });
-
-            setupLatch.await();
+                setupLatch.await();
+            }
             game.startGame();
         }
         catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new RuntimeException("Thread was interrupted during setup", e);
         }
+        finally {
+            clock.unregister();
+        }
+    }
+
+    private static void setUpGame(Game game, GameView gameView, GameParams gameParams, CountDownLatch latch, String gameName, String folderName, RunOverviewWriter runOverviewWriter, boolean keyboardInput) {
+        List<Pawn> allPawns = game.getBoard().getPawns();
+        ActionWriter actionWriter = new ActionWriter(folderName, gameName, gameParams, allPawns, game.getClock());
+        ActionDelegator actionDelegator = new ActionDelegator(game, gameView, actionWriter);
+        game.giveActionDelegatorToAIPlayers(actionDelegator);
+
+        game.setTimerFinishCallback(() -> {
+            actionWriter.close();
+            game.endGame();
+            System.out.println("Game has ended, you have lost.");
+            runOverviewWriter.writeGameResult(gameParams, false);
+            gameView.close();
+            latch.countDown();
+        });
+
+        game.setGameWonCallback(() -> {
+            actionWriter.close();
+            game.endGame();
+            System.out.println("Congratulations! You have won the game.");
+            runOverviewWriter.writeGameResult(gameParams, true);
+            gameView.close();
+            latch.countDown();
+        });
+
+        if(keyboardInput){
+            new KeyboardInputManager(actionDelegator);
+        }
     }
 
     private static void replayOnce(String folderName, String fileName, CountDownLatch latch){
@@ -135,21 +177,21 @@ public class Main {
             ReplayManager replayManager = new ReplayManager(folderName, fileName);
             Map<Color, Coordinate> initialPawnPositions = replayManager.getInitialPawnPositions();
             Game game = new Game(initialPawnPositions);
-            BoardUI boardUI = new BoardUI(game.getBoard());
+            GameView boardUI = new BoardUI(game.getBoard());
             ActionDelegator actionDelegator = new ActionDelegator(game, boardUI);
             replayManager.setActionDelegator(actionDelegator);
             replayManager.startReplay();
 
             replayManager.setOnGameFinishedCallback(() -> {
 
-                SwingUtilities.invokeLater(boardUI::dispose); // Close the window
+                boardUI.close();
                 latch.countDown();
             });
 
             game.setGameWonCallback(() -> {
                 System.out.println("Replay has ended.");
                 System.out.println("Congratulations! You have won the game.");
-                SwingUtilities.invokeLater(boardUI::dispose); // Close the window
+                boardUI.close();
                 latch.countDown();
             });
 
@@ -9,92 +9,200 @@ import java.util.*;
 
 import static org.game.model.ActionType.*;
 
+/**
+ * Trie of the routes of actions the player has memorised, with the priority of the goal at the end of each route.
+ * The nodes live in primitive arrays indexed by node (the root of the whole arena is node 0): the child for each
+ * action type, except for vortexes, whose children are kept in a list per node as there is one per target.
+ * The arrays are kept between rebuilds, clear() only resets the number of nodes in use.
+ * Only the execution thread of its agent uses the tree.
+ */
 public class ActionTree {
-    private Node root;
+    private static final int NO_NODE = -1;
+    private static final ActionType[] TYPES = ActionType.values();
+    private static final int CODES = TYPES.length;
+
+    private int root;
+    private int nodeCount;
+    // child of each node per action type (node * CODES + ordinal), unused for VORTEX
+    private int[] children;
+    // first vortex child of each node, and the next vortex child of the same parent of each node
+    private int[] firstVortexChild;
+    private int[] nextVortexSibling;
+    // target of the vortex action leading to each node, null for the other nodes
+    private Coordinate[] vortexTargets;
+    // priority of the route ending in each node, NaN if no route ends there
+    private float[] priorities;
+    // cached over the subtree of each node, kept up to date by addRoute along the route it adds
+    private float[] subtreeMax;
+    private int[] bestChild; // child with the highest subtreeMax, NO_NODE if there are no children
+    private int[] bestActionCode; // type of the action leading to the best child
+    private int[] edgeCount; // edges from the node
+    private int[] subtreeEdges;
 
     public ActionTree() {
-        this.root = new Node();
+        allocate(64);
+        clear();
     }
 
-    /** Represents an edge between nodes */
-    private static class ActionEdge {
-        Action action;
-        Node childNode;
+    private void allocate(int capacity) {
+        children = new int[capacity * CODES];
+        firstVortexChild = new int[capacity];
+        nextVortexSibling = new int[capacity];
+        vortexTargets = new Coordinate[capacity];
+        priorities = new float[capacity];
+        subtreeMax = new float[capacity];
+        bestChild = new int[capacity];
+        bestActionCode = new int[capacity];
+        edgeCount = new int[capacity];
+        subtreeEdges = new int[capacity];
+    }
+
+    private void grow() {
+        int capacity = priorities.length * 2;
+        children = Arrays.copyOf(children, capacity * CODES);
+        firstVortexChild = Arrays.copyOf(firstVortexChild, capacity);
+        nextVortexSibling = Arrays.copyOf(nextVortexSibling, capacity);
+        vortexTargets = Arrays.copyOf(vortexTargets, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+        subtreeMax = Arrays.copyOf(subtreeMax, capacity);
+        bestChild = Arrays.copyOf(bestChild, capacity);
+        bestActionCode = Arrays.copyOf(bestActionCode, capacity);
+        edgeCount = Arrays.copyOf(edgeCount, capacity);
+        subtreeEdges = Arrays.copyOf(subtreeEdges, capacity);
+    }
+
+    /** Remove all routes, the memory of the nodes is reused by the next ones */
+    public void clear() {
+        // the targets of the old vortex nodes are not read again, but would keep their coordinates alive
+        Arrays.fill(vortexTargets, 0, nodeCount, null);
+        nodeCount = 0;
+        root = newNode(null);
+    }
 
-        ActionEdge(Action action, Node childNode) {
-            this.action = action;
-            this.childNode = childNode;
+    private int newNode(Coordinate vortexTarget) {
+        if (nodeCount == priorities.length) {
+            grow();
         }
+        int node = nodeCount++;
+        Arrays.fill(children, node * CODES, (node + 1) * CODES, NO_NODE);
+        firstVortexChild[node] = NO_NODE;
+        nextVortexSibling[node] = NO_NODE;
+        vortexTargets[node] = vortexTarget;
+        priorities[node] = Float.NaN;
+        subtreeMax[node] = -Float.MAX_VALUE;
+        bestChild[node] = NO_NODE;
+        bestActionCode[node] = NO_NODE;
+        edgeCount[node] = 0;
+        subtreeEdges[node] = 0;
+        return node;
     }
 
-    /** Represents a node in the tree */
-    private static class Node {
-        Map<Action, ActionEdge> edges = new HashMap<>();
-        Double priority = null; // only for leaves
+    // the child of the node by the action, NO_NODE if there is none
+    private int childOf(int node, Action action) {
+        if (action.getType() != VORTEX) {
+            return children[node * CODES + action.getType().ordinal()];
+        }
+        // a vortex action without a target never matches, not even another one without a target
+        Coordinate target = action.getVortexCoordinate();
+        if (target == null) {
+            return NO_NODE;
+        }
+        for (int child = firstVortexChild[node]; child != NO_NODE; child = nextVortexSibling[child]) {
+            if (target.equals(vortexTargets[child])) {
+                return child;
+            }
+        }
+        return NO_NODE;
+    }
+
+    private int addChild(int node, Action action) {
+        int child = newNode(action.getType() == VORTEX ? action.getVortexCoordinate() : null);
+        if (action.getType() == VORTEX) {
+            if(Config.PRINT_EVERYTHING) {
+                System.out.println("Adding VORTEX action to tree at coordinate: " + action.getVortexCoordinate());
+            }
+            nextVortexSibling[child] = firstVortexChild[node];
+            firstVortexChild[node] = child;
+        }
+        else {
+            children[node * CODES + action.getType().ordinal()] = child;
+        }
+        edgeCount[node]++;
+        return child;
     }
 
     /** Add a route of actions top-to-bottom */
     public void addRoute(List<Action> actions, double priority) {
-        Node current = root;
-        for (Action action : actions) {
-            ActionEdge edge = current.edges.get(action);
-            ActionEdge newEdge = null;
+        int current = root;
+        int[] path = new int[actions.size() + 1];
+        path[0] = current;
+        for (int i = 0; i < actions.size(); i++) {
+            Action action = actions.get(i);
+            int child = childOf(current, action);
             // if the current node doesn't have this action edge, create it
-            if (edge == null) {
-                Node child = new Node();
-                edge = new ActionEdge(action, child);
-                if(action.getType() == VORTEX){
-                    if(Config.PRINT_EVERYTHING) {
-                        System.out.println("Adding VORTEX action to tree at coordinate: " + action.getVortexCoordinate());
-                    }
-                }
-                current.edges.put(action, edge);
+            if (child == NO_NODE) {
+                child = addChild(current, action);
             }
-            else if(edge.action.getType().equals(VORTEX) && action.getType().equals(VORTEX)){
-                // both are Vortex, check if they go to the same vortex
-                Coordinate vortex1 = edge.action.getVortexCoordinate();
-                Coordinate vortex2 = action.getVortexCoordinate();
-                if(!vortex1.equals(vortex2)){
-                    // if both are vortexes but not the same coordinate, create a new edge
-                    Node child = new Node();
-                    newEdge = new ActionEdge(action, child);
-                    current.edges.put(action, newEdge);
+            current = child;
+            path[i + 1] = current;
+        }
+        // assign priority to the leaf node
+        priorities[current] = (float) priority;
+
+        // only the nodes on the route can have changed, children first
+        for (int i = path.length - 1; i >= 0; i--) {
+            refresh(path[i]);
+        }
+    }
+
+    /** Recompute the cached values of the node from its own priority and the cached values of its children */
+    private void refresh(int node) {
+        int best = NO_NODE;
+        int bestCode = NO_NODE;
+        int edges = edgeCount[node];
+        int base = node * CODES;
+        for (int code = 0; code < CODES; code++) {
+            int child = children[base + code];
+            if (child != NO_NODE) {
+                if (best == NO_NODE || subtreeMax[child] > subtreeMax[best]) {
+                    best = child;
+                    bestCode = code;
                 }
+                edges += subtreeEdges[child];
             }
-            // if the edge exists, move down to the child node
-            if(newEdge == null){
-                current = edge.childNode;
-            }
-            else{
-                current = newEdge.childNode;
+        }
+        for (int child = firstVortexChild[node]; child != NO_NODE; child = nextVortexSibling[child]) {
+            if (best == NO_NODE || subtreeMax[child] > subtreeMax[best]) {
+                best = child;
+                bestCode = VORTEX.ordinal();
             }
+            edges += subtreeEdges[child];
         }
-        // assign priority to the leaf node
-        current.priority = priority;
+        float max = Float.isNaN(priorities[node]) ? -Float.MAX_VALUE : priorities[node];
+        subtreeMax[node] = best == NO_NODE ? max : Math.max(max, subtreeMax[best]);
+        bestChild[node] = best;
+        bestActionCode[node] = bestCode;
+        subtreeEdges[node] = edges;
     }
 
     /** Take an action: move root down if action exists */
     public boolean takeAction(Action action) {
-        ActionEdge edge = root.edges.get(action);
-        if (edge == null) return false; // invalid action
-        root = edge.childNode; // move root
+        int child = childOf(root, action);
+        if (child == NO_NODE) return false; // invalid action
+        root = child; // move root
         return true;
     }
 
     /** Find the child of root whose subtree has the highest-priority leaf */
     public Action bestAction() {
-        Action bestAction = null;
-        Double bestPriority = -1.0;
-
-        for (Map.Entry<Action, ActionEdge> entry : root.edges.entrySet()) {
-            Double subtreeMax = maxPriority(entry.getValue().childNode);
-            if (subtreeMax > bestPriority) {
-                bestPriority = subtreeMax;
-                bestAction = entry.getKey();
-            }
+        int best = bestChild[root];
+        if (best == NO_NODE) {
+            return null;
         }
+        float bestPriority = subtreeMax[best];
 
         if(bestPriority > 0){
+            Action bestAction = actionTo(best, bestActionCode[root]);
             if(Config.PRINT_EVERYTHING) {
                 System.out.println("Max priority: " + bestPriority + " by action: " + bestAction);
             }
@@ -104,13 +212,8 @@ public class ActionTree {
         return null;
     }
 
-    /** Recursively find maximum priority (the higher, the better) in subtree */
-    private Double maxPriority(Node node) {
-        double max = (node.priority != null) ? node.priority : -Double.MAX_VALUE;
-        for (ActionEdge edge : node.edges.values()) {
-            max = Math.max(max, maxPriority(edge.childNode));
-        }
-        return max;
+    private Action actionTo(int node, int code) {
+        return code == VORTEX.ordinal() ? Action.vortex(vortexTargets[node]) : Action.of(TYPES[code]);
     }
 
     /** Print the tree */
@@ -119,35 +222,31 @@ public class ActionTree {
         printTree(root, "", "");
     }
 
-    private void printTree(Node node, String prefix, String actionLabel) {
+    private void printTree(int node, String prefix, String actionLabel) {
         String label = actionLabel.isEmpty() ? "ROOT" : actionLabel;
-        String priorityStr = (node.priority != null) ? " (P=" + node.priority + ")" : "";
+        String priorityStr = !Float.isNaN(priorities[node]) ? " (P=" + priorities[node] + ")" : "";
         System.out.println(prefix + label + priorityStr);
 
-        for (ActionEdge edge : node.edges.values()) {
-            printTree(edge.childNode, prefix + "  ", edge.action.toString());
-
+        for (int code = 0; code < CODES; code++) {
+            int child = children[node * CODES + code];
+            if (child != NO_NODE) {
+                printTree(child, prefix + "  ", actionTo(child, code).toString());
+            }
+        }
+        for (int child = firstVortexChild[node]; child != NO_NODE; child = nextVortexSibling[child]) {
+            printTree(child, prefix + "  ", actionTo(child, VORTEX.ordinal()).toString());
         }
     }
 
     public int getTotalNumberOfEdges(){
-        return countEdges(root);
-    }
-
-    // recurrently count edges
-    private int countEdges(Node node){
-        int count = node.edges.size();
-        for(ActionEdge edge : node.edges.values()){
-            count += countEdges(edge.childNode);
-        }
-        return count;
+        return subtreeEdges[root];
     }
 
     public boolean isEmpty(){
-        return root.edges.isEmpty();
+        return edgeCount[root] == 0;
     }
 
     public boolean areAnyLeafsPositivePriority(){
-        return maxPriority(root)>0;
+        return subtreeMax[root]>0;
     }
 }
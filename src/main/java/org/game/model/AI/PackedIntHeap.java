@@ -0,0 +1,62 @@
+package org.game.model.AI;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of plain ints, reused between searches so that pushing does not allocate.
+ * Searches pack the priority into the high bits and the cell index into the low bits of each entry.
+ */
+public class PackedIntHeap {
+    private int[] entries;
+    private int size = 0;
+
+    public PackedIntHeap(int initialCapacity) {
+        entries = new int[Math.max(initialCapacity, 16)];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void push(int entry) {
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size * 2);
+        }
+        // sift up
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (entries[parent] <= entry) {
+                break;
+            }
+            entries[i] = entries[parent];
+            i = parent;
+        }
+        entries[i] = entry;
+    }
+
+    public int pop() {
+        int top = entries[0];
+        int last = entries[--size];
+        // sift down
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && entries[child + 1] < entries[child]) {
+                child++;
+            }
+            if (last <= entries[child]) {
+                break;
+            }
+            entries[i] = entries[child];
+            i = child;
+        }
+        entries[i] = last;
+        return top;
+    }
+}
@@ -0,0 +1,57 @@
+package org.game.model.AI;
+
+import org.game.model.Color;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Paths found on one board, shared by all players of the game. Keys contain the board version, so entries of an
+ * older board are never returned and simply age out of the LRU order.
+ * Cached paths are shared between threads and must not be changed.
+ */
+public class PathCache {
+    private final Map<Key, Optional<SearchPath>> paths;
+    private long hits = 0;
+    private long misses = 0;
+
+    /**
+     * @param heuristicType -1 for exact paths, which do not depend on the heuristic of the player asking
+     */
+    public record Key(int startCell, int goalCell, Color pawnColor, boolean firstPhase, int boardVersion, int heuristicType) {
+    }
+
+    public PathCache(int capacity) {
+        this.paths = new LinkedHashMap<>(capacity, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Optional<SearchPath>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    // returns null if the path is not cached, an empty Optional if it is known that there is no path
+    public synchronized Optional<SearchPath> get(Key key) {
+        Optional<SearchPath> path = paths.get(key);
+        if (path == null) {
+            misses++;
+        }
+        else {
+            hits++;
+        }
+        return path;
+    }
+
+    public synchronized void put(Key key, SearchPath path) {
+        paths.put(key, Optional.ofNullable(path));
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
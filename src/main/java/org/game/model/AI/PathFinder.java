@@ -1,127 +1,286 @@
 package org.game.model.AI;
 
+import org.game.model.ActionType;
 import org.game.model.Color;
 import org.game.model.Coordinate;
 import org.game.model.TileType;
 import org.game.model.board.Board;
 import org.game.model.board.BoardVortex;
-import org.game.model.board.PawnManager;
+import org.game.model.board.GoalDistanceFields;
+import org.game.model.board.Terrain;
 import org.game.model.Tile;
 import org.game.utils.Config;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.Optional;
 
 public class PathFinder {
+    // the heap keys pack f next to the cell index in an int: 2 * cellBits + 1 has to stay within 31 bits
+    public static final int MAX_BOARD_SIZE = (int) Math.sqrt(1 << 15);
+    private static final Action[] MOVES = {Action.MOVE_NORTH, Action.MOVE_SOUTH, Action.MOVE_WEST, Action.MOVE_EAST};
+
     private final Tile[][] grid;
     private final Board board;
+    private final Terrain terrain;
+    private final int rows;
+    private final int cols;
+
+    private final int cellBits;
+    private final int cellMask;
+    // every thread searches with its own scratch state, so searches never share anything mutable
+    private final ThreadLocal<SearchState> searchStates;
+    private final LongAdder expandedCells = new LongAdder();
 
     public PathFinder(Tile[][] grid, Board board) {
         this.grid = grid;
         this.board = board;
+        this.terrain = board.getTerrain();
+        this.rows = grid.length;
+        this.cols = grid[0].length;
+        int cells = rows * cols;
+        this.searchStates = ThreadLocal.withInitial(() -> new SearchState(cells));
+        this.cellBits = 32 - Integer.numberOfLeadingZeros(cells - 1);
+        this.cellMask = (1 << cellBits) - 1;
+        // f is at most the number of cells plus the heuristic, both have to fit next to the cell index
+        if (2 * cellBits + 1 > 31) {
+            throw new RuntimeException("Board of " + rows + "x" + cols + " is too large for the path finder");
+        }
     }
 
+    // the returned path may be shared with other players and must not be changed
     public SearchPath findShortestPath(Coordinate coordinateStart, Coordinate coordinateEnd, Color pawnColor, int heuristicType) {
-        int rows = grid.length;
-        int cols = grid[0].length;
+        // read the version first, a path found on a newer board is still valid for the older one but not the other way round
+        int boardVersion = board.getVersion();
+        // goals have their distances maintained by the board, the path can be read from them without searching
+        int[] field = board.getGoalDistanceFields().getField(coordinateEnd);
+        // paths read from the distances are exact and the same for any heuristic
+        PathCache.Key key = new PathCache.Key(coordinateStart.x() * cols + coordinateStart.y(), coordinateEnd.x() * cols + coordinateEnd.y(),
+                pawnColor, board.isFirstPhase(), boardVersion, field != null ? -1 : heuristicType);
+        Optional<SearchPath> cachedPath = board.getPathCache().get(key);
+        if (cachedPath != null) {
+            return cachedPath.orElse(null);
+        }
 
-        // Priority queue for A* search
-        PriorityQueue<Node> openSet = new PriorityQueue<>(Comparator.comparingInt(n -> n.f));
-        Set<String> closedSet = new HashSet<>();
-        SearchPath searchPath = new SearchPath();
+        SearchPath path;
+        if (field != null) {
+            path = followField(field, coordinateStart, coordinateEnd, pawnColor);
+        }
+        else {
+            path = searchPath(coordinateStart, coordinateEnd, pawnColor, heuristicType);
+        }
+        board.getPathCache().put(key, path);
+        return path;
+    }
+
+    /**
+     * A* over the cells, the only search left: every goal has a distance field, so it only runs for a cell without
+     * one, a goal that was reached or discovered after findShortestPaths read the goals.
+     */
+    private SearchPath searchPath(Coordinate coordinateStart, Coordinate coordinateEnd, Color pawnColor, int heuristicType) {
+        SearchState state = searchStates.get();
+        state.start();
+        int goalX = coordinateEnd.x();
+        int goalY = coordinateEnd.y();
+        int startCell = coordinateStart.x() * cols + coordinateStart.y();
+        int goalCell = goalX * cols + goalY;
 
         // Start node
-        Node startNode = new Node(coordinateStart, 0, findDistance(coordinateStart, coordinateEnd, heuristicType), null, null);
-        openSet.add(startNode);
+        int directDistance = heuristic(coordinateStart.x(), coordinateStart.y(), goalX, goalY, heuristicType);
+        state.relax(startCell, 0, directDistance, -1, null);
 
         // only search for vortexes in the first phase (second phase vortexes are not usable)
         if(board.isFirstPhase()){
-            // check for all vortexes that could shorten the distance
-            List<BoardVortex> vortexesOfColor = board.getVortexListByColor(pawnColor);
-            List<Coordinate> vortexCoordinates = new ArrayList<>();
-            for (BoardVortex vortex : vortexesOfColor) {
-                vortexCoordinates.add(vortex.coordinate());
-            }
-            // for each vortexCoordinates, if using the vortex would shorten the distance, add it to the openSet
-            for (Coordinate vortexCoordinate : vortexCoordinates) {
-                int distanceToVortex = 1;
-                int distanceFromVortexToEnd = findDistance(vortexCoordinate, coordinateEnd, heuristicType);
-                int directDistance = findDistance(coordinateStart, coordinateEnd, heuristicType);
-                if (distanceToVortex + distanceFromVortexToEnd < directDistance) {
-                    // add vortexCoordinate to openSet
-                    int newG = distanceToVortex;
-                    int newH = distanceFromVortexToEnd;
-                    int dx = vortexCoordinate.x() - coordinateStart.x();
-                    int dy = vortexCoordinate.y() - coordinateStart.y();
-                    Action vortexAction = Action.VORTEX;
-                    vortexAction.setDynamicCoordinates(dx, dy);
-                    Node vortexNode = new Node(vortexCoordinate, newG, newH, startNode, vortexAction);
-                    openSet.add(vortexNode);
-                }
+            // every vortex of the color is one step away, the search decides whether using one is shorter
+            // (comparing estimates here would miss shortcuts whenever the heuristic underestimates)
+            for (BoardVortex vortex : board.getVortexListByColor(pawnColor)) {
+                Coordinate vortexCoordinate = vortex.coordinate();
+                int distanceFromVortexToEnd = heuristic(vortexCoordinate.x(), vortexCoordinate.y(), goalX, goalY, heuristicType);
+                state.relax(vortexCoordinate.x() * cols + vortexCoordinate.y(), 1, distanceFromVortexToEnd, startCell, Action.VORTEX);
             }
         }
 
-        while (!openSet.isEmpty()) {
-            Node current = openSet.poll();
-            String currentKey = current.getX() + "," + current.getY();
+        while (!state.openSet.isEmpty()) {
+            int current = state.openSet.pop() & cellMask;
+            if (state.isClosed(current)) {
+                continue; // already expanded with a lower cost
+            }
 
             // Goal check
-            if (current.getX() == coordinateEnd.x() && current.getY() == coordinateEnd.y()) {
-                reconstructPath(searchPath, current);
+            if (current == goalCell) {
+                SearchPath searchPath = reconstructPath(state, goalCell);
                 // if the coordinateEnd is a Discovery tile, add action to the searchPath
                 handleDiscoveryTile(searchPath, coordinateEnd);
                 return searchPath; // Return the shortest path from start to goal
             }
 
-            closedSet.add(currentKey);
+            state.close(current);
+            expand(state, current, coordinateEnd, heuristicType);
+        }
 
-            // Check for escalators
-            Tile currentTile = grid[current.getX()][current.getY()];
-            if (currentTile.hasEscalator()) {
-                Coordinate coordinateOtherSideOfEscalator = PawnManager.getOtherSideOfEscalator(new Coordinate(current.getX(), current.getY()));
-                if(coordinateOtherSideOfEscalator == null) {
-                    continue; // No valid escalator destination
-                }
+        if(Config.PRINT_EVERYTHING) {
+            System.out.println("No path found from " + coordinateStart + " to " + coordinateEnd);
+        }
+        return null; // No path is found
+    }
 
-                if (isValid(coordinateOtherSideOfEscalator, rows, cols, grid) &&
-                        !closedSet.contains(coordinateOtherSideOfEscalator.x() + "," + coordinateOtherSideOfEscalator.y())) {
-                    int newG = current.g + 1; // Cost to move to the escalator destination
-                    int newH = findDistance(coordinateOtherSideOfEscalator, coordinateEnd, heuristicType);
-                    int dx = coordinateOtherSideOfEscalator.x() - current.getX();
-                    int dy = coordinateOtherSideOfEscalator.y() - current.getY();
-                    Action escalatorAction = Action.ESCALATOR;
-                    escalatorAction.setDynamicCoordinates(dx, dy);
-                    Node escalatorNode = new Node(coordinateOtherSideOfEscalator, newG, newH, current, escalatorAction);
-                    openSet.add(escalatorNode);
-                }
+    /**
+     * Finds the shortest paths to several goals: goals are taken in ascending order of distance, and no more paths are
+     * read as soon as the paths found so far take more than maxChunks chunks to remember (the path crossing the limit
+     * is still returned). Unreachable goals are left out.
+     */
+    public Map<Coordinate, SearchPath> findShortestPaths(Coordinate coordinateStart, List<Coordinate> goals, Color pawnColor, int heuristicType, int maxChunks) {
+        Map<Coordinate, Integer> distances = new HashMap<>();
+        // a goal can lose its distances (it was reached or discovered) after the goals were read, its path is searched
+        // right away to know how far it is
+        Map<Coordinate, SearchPath> searchedPaths = new HashMap<>();
+        for (Coordinate goal : goals) {
+            if (board.getGoalDistanceFields().getField(goal) != null) {
+                distances.put(goal, findGoalDistance(coordinateStart, goal, pawnColor, heuristicType));
+            }
+            else {
+                SearchPath path = findShortestPath(coordinateStart, goal, pawnColor, heuristicType);
+                searchedPaths.put(goal, path);
+                distances.put(goal, path == null ? GoalDistanceFields.UNREACHABLE : stepsOf(path));
+            }
+        }
+        List<Coordinate> reachableGoals = new ArrayList<>(goals);
+        reachableGoals.removeIf(goal -> distances.get(goal) == GoalDistanceFields.UNREACHABLE);
+        reachableGoals.sort(Comparator.comparingInt(distances::get));
+
+        Map<Coordinate, SearchPath> paths = new LinkedHashMap<>();
+        int chunks = 0;
+        for (Coordinate goal : reachableGoals) {
+            SearchPath path = searchedPaths.containsKey(goal) ? searchedPaths.get(goal) : findShortestPath(coordinateStart, goal, pawnColor, heuristicType);
+            paths.put(goal, path);
+            chunks += ChunkGenerator.countChunks(path);
+            if (chunks > maxChunks) {
+                break;
             }
+        }
+        return paths;
+    }
 
-            // Explore neighbors
-            for (Action action : Action.values()) {
-                Coordinate coordinateNew = new Coordinate(current.getX() + action.dx, current.getY() + action.dy);
+    // steps of the path, the discovery at its end is not a step
+    private static int stepsOf(SearchPath path) {
+        List<SearchPath.Node> nodes = path.getNodes();
+        return nodes.size() - 1 - (nodes.getLast().action() == Action.DISCOVERY ? 1 : 0);
+    }
 
-                if (isValid(coordinateNew, rows, cols, grid) &&
-                        !closedSet.contains(coordinateNew.x() + "," + coordinateNew.y()) &&
-                        hasNoWall(grid[current.getX()][current.getY()], grid[coordinateNew.x()][coordinateNew.y()], action)) {
-                    int newG = current.g + 1; // Cost to move to the neighbor
-                    int newH = findDistance(coordinateNew, coordinateEnd, heuristicType);
-                    Node neighbor = new Node(coordinateNew, newG, newH, current, action);
+    // relaxes all steps out of a closed cell
+    private void expand(SearchState state, int current, Coordinate goal, int heuristicType) {
+        expandedCells.increment();
+        int x = current / cols;
+        int y = current - x * cols;
+        int newG = state.gScore[current] + 1; // every step costs the same
+
+        // Check for escalators, without the other end placed only the escalator is unusable, the tile can still be left on foot
+        int otherSide = board.getJumpIndex().getOtherSideOfEscalator(current);
+        if (otherSide != -1) {
+            int otherX = otherSide / cols;
+            int otherY = otherSide - otherX * cols;
+            state.relax(otherSide, newG, heuristic(otherX, otherY, goal.x(), goal.y(), heuristicType), current, Action.ESCALATOR);
+        }
 
-                    openSet.add(neighbor);
-                }
+        // Explore neighbors
+        for (Action action : MOVES) {
+            int neighbour = terrain.step(current, action);
+            if (neighbour != -1) {
+                state.relax(neighbour, newG, heuristic(x + action.dx, y + action.dy, goal.x(), goal.y(), heuristicType), current, action);
             }
         }
+    }
 
-        if(Config.PRINT_EVERYTHING) {
-            System.out.println("No path found from " + coordinateStart + " to " + coordinateEnd);
+    // number of cells expanded by all searches, to compare the heuristics
+    public long getExpandedCells() {
+        return expandedCells.sum();
+    }
+
+    // exact number of steps to a goal (using a vortex if it is shorter), UNREACHABLE if there is no way,
+    // falls back to the estimate of the heuristic if the board has no distances for the goal
+    public int findGoalDistance(Coordinate coordinateStart, Coordinate coordinateEnd, Color pawnColor, int heuristicType) {
+        int[] field = board.getGoalDistanceFields().getField(coordinateEnd);
+        if (field == null) {
+            return findDistance(coordinateStart, coordinateEnd, heuristicType);
         }
-        return null; // No path is found
+        int distance = field[coordinateStart.x() * cols + coordinateStart.y()];
+        int vortexCell = bestVortex(field, distance, pawnColor);
+        return vortexCell == -1 ? distance : field[vortexCell] + 1;
     }
 
-    private boolean isValid(Coordinate coordinate, int rows, int cols, Tile[][] grid) {
-        return coordinate.x() >= 0 && coordinate.x() < rows && coordinate.y() >= 0 && coordinate.y() < cols && grid[coordinate.x()][coordinate.y()] != null;
+    // the vortex of the color from which the goal is closer than the given distance even with the jump, -1 if none
+    private int bestVortex(int[] field, int distance, Color pawnColor) {
+        // only search for vortexes in the first phase (second phase vortexes are not usable)
+        if (!board.isFirstPhase()) {
+            return -1;
+        }
+        int bestCell = -1;
+        for (BoardVortex vortex : board.getVortexListByColor(pawnColor)) {
+            int vortexCell = vortex.coordinate().x() * cols + vortex.coordinate().y();
+            int viaVortex = field[vortexCell];
+            if (viaVortex != GoalDistanceFields.UNREACHABLE && viaVortex + 1 < distance) {
+                distance = viaVortex + 1;
+                bestCell = vortexCell;
+            }
+        }
+        return bestCell;
     }
 
-    private boolean hasNoWall(Tile fromTile, Tile toTile, Action action) {
+    // walks down the distances of the goal, every step goes to a cell that is one step closer
+    private SearchPath followField(int[] field, Coordinate coordinateStart, Coordinate coordinateEnd, Color pawnColor) {
+        int current = coordinateStart.x() * cols + coordinateStart.y();
+        int vortexCell = bestVortex(field, field[current], pawnColor);
+        if (field[current] == GoalDistanceFields.UNREACHABLE && vortexCell == -1) {
+            if(Config.PRINT_EVERYTHING) {
+                System.out.println("No path found from " + coordinateStart + " to " + coordinateEnd);
+            }
+            return null; // No path is found
+        }
+
+        SearchPath searchPath = new SearchPath();
+        searchPath.addNode(coordinateStart.x(), coordinateStart.y(), null);
+        if (vortexCell != -1) {
+            current = vortexCell;
+            searchPath.addNode(current / cols, current % cols, Action.VORTEX);
+        }
+        while (field[current] > 0) {
+            int x = current / cols;
+            int y = current - x * cols;
+            int next = -1;
+            Action step = null;
+            for (Action action : MOVES) {
+                int neighbour = terrain.step(current, action);
+                if (neighbour != -1 && field[neighbour] == field[current] - 1) {
+                    next = neighbour;
+                    step = action;
+                    break;
+                }
+            }
+            if (next == -1) {
+                int otherSide = board.getJumpIndex().getOtherSideOfEscalator(current);
+                if (otherSide != -1 && field[otherSide] == field[current] - 1) {
+                    next = otherSide;
+                    step = Action.ESCALATOR;
+                }
+            }
+            if (next == -1) {
+                throw new RuntimeException("Distances to " + coordinateEnd + " do not match the board at (" + x + ", " + y + ")");
+            }
+            current = next;
+            searchPath.addNode(current / cols, current % cols, step);
+        }
+        // if the coordinateEnd is a Discovery tile, add action to the searchPath
+        handleDiscoveryTile(searchPath, coordinateEnd);
+        return searchPath;
+    }
+
+    public static boolean hasNoWall(Tile fromTile, Tile toTile, Action action) {
         return switch (action) {
             case MOVE_NORTH -> !fromTile.hasWallUp() && !toTile.hasWallDown();
             case MOVE_SOUTH -> !fromTile.hasWallDown() && !toTile.hasWallUp();
@@ -132,34 +291,35 @@ public class PathFinder {
     }
 
     public int findDistance(Coordinate coordinateA, Coordinate coordinateB, int heuristicType) {
+        return heuristic(coordinateA.x(), coordinateA.y(), coordinateB.x(), coordinateB.y(), heuristicType);
+    }
+
+    private int heuristic(int ax, int ay, int bx, int by, int heuristicType) {
         return switch (heuristicType) {
-            case 0 -> heuristicEuclidian(coordinateA, coordinateB);
-            case 1 -> heuristicManhattan(coordinateA, coordinateB);
-            default -> heuristicManhattan(coordinateA, coordinateB);
+            case 0 -> heuristicEuclidian(ax - bx, ay - by);
+            case 1 -> heuristicManhattan(ax - bx, ay - by);
+            case 2 -> board.getLandmarks().lowerBound(ax * cols + ay, bx * cols + by);
+            default -> heuristicManhattan(ax - bx, ay - by);
         };
     }
 
-    private int heuristicManhattan(Coordinate coordinateA, Coordinate coordinateB) {
-        return Math.abs(coordinateA.x() - coordinateB.x()) + Math.abs(coordinateA.y() - coordinateB.y());
+    private int heuristicManhattan(int dx, int dy) {
+        return Math.abs(dx) + Math.abs(dy);
     }
 
-    private int heuristicEuclidian(Coordinate coordinateA, Coordinate coordinateB) {
-        return (int) Math.sqrt(Math.pow(coordinateA.x() - coordinateB.x(), 2) + Math.pow(coordinateA.y() - coordinateB.y(), 2));
+    private int heuristicEuclidian(int dx, int dy) {
+        return (int) Math.sqrt(dx * dx + dy * dy);
     }
 
-    private void reconstructPath(SearchPath searchTree, Node goalNode) {
-        Node current = goalNode;
-        while (current != null) {
-            searchTree.addNode(current.getX(), current.getY(), current.action);
-            current = current.parent;
+    private SearchPath reconstructPath(SearchState state, int goalCell) {
+        SearchPath searchPath = new SearchPath();
+        for (int cell = goalCell; cell != -1; cell = state.parent[cell]) {
+            int x = cell / cols;
+            searchPath.addNode(x, cell - x * cols, state.parentAction[cell]);
         }
         // Reverse the path to get from start to goal
-        reversePath(searchTree);
-    }
-
-    private void reversePath(SearchPath searchTree) {
-        List<SearchPath.Node> nodes = searchTree.getNodes();
-        Collections.reverse(nodes);
+        searchPath.reverse();
+        return searchPath;
     }
 
     private void handleDiscoveryTile(SearchPath searchPath, Coordinate coordinateEnd) {
@@ -170,52 +330,94 @@ public class PathFinder {
         }
     }
 
-    private static class Node {
-        Coordinate coordinate;
-        int g, f;
-        Node parent;
-        Action action;
+    /**
+     * Kind of step between two path nodes. Escalator and vortex steps jump to the coordinate of the node they lead to,
+     * so only moves have a fixed offset.
+     */
+    public enum Action {
+        MOVE_NORTH(-1, 0, ActionType.MOVE_NORTH),
+        MOVE_SOUTH(1, 0, ActionType.MOVE_SOUTH),
+        MOVE_WEST(0, -1, ActionType.MOVE_WEST),
+        MOVE_EAST(0, 1, ActionType.MOVE_EAST),
+        ESCALATOR(0,0, ActionType.ESCALATOR),
+        DISCOVERY(0,0, ActionType.DISCOVER), // special action for discovery tile
+        VORTEX(0,0, ActionType.VORTEX);
+
+        private final int dx, dy;
+        // the same action of a pawn, the shared instance without a target for VORTEX
+        private final org.game.model.Action modelAction;
+
+        Action(int dx, int dy, ActionType type) {
+            this.dx = dx;
+            this.dy = dy;
+            this.modelAction = org.game.model.Action.of(type);
+        }
 
-        Node(Coordinate coordinate, int g, int h, Node parent, Action action) {
-            this.coordinate = coordinate;
-            this.g = g;
-            this.f = g + h;
-            this.parent = parent;
-            this.action = action;
+        public org.game.model.Action toModelAction() {
+            return modelAction;
         }
 
-        public int getX() {
-            return coordinate.x();
+        public int dx() {
+            return dx;
         }
-        public int getY() {
-            return coordinate.y();
+
+        public int dy() {
+            return dy;
         }
     }
 
-    public enum Action {
-        MOVE_NORTH(-1, 0),
-        MOVE_SOUTH(1, 0),
-        MOVE_WEST(0, -1),
-        MOVE_EAST(0, 1),
-        ESCALATOR(0,0),
-        DISCOVERY(0,0), // special action for discovery tile
-        VORTEX(0,0); // placeholder for vortex action
+    // scratch arrays of one thread's searches, indexed by cell and reused between searches
+    // an entry is only valid if its stamp equals the generation of the current search
+    private class SearchState {
+        final int[] gScore;
+        final int[] parent;
+        final Action[] parentAction;
+        final int[] seenStamp;
+        final int[] closedStamp;
+        final PackedIntHeap openSet;
+        int generation = 0;
+
+        SearchState(int cells) {
+            gScore = new int[cells];
+            parent = new int[cells];
+            parentAction = new Action[cells];
+            seenStamp = new int[cells];
+            closedStamp = new int[cells];
+            openSet = new PackedIntHeap(cells);
+        }
 
+        void start() {
+            generation++;
+            if (generation == Integer.MAX_VALUE) {
+                // stamps would repeat, start over with clean arrays
+                Arrays.fill(seenStamp, 0);
+                Arrays.fill(closedStamp, 0);
+                generation = 1;
+            }
+            openSet.clear();
+        }
 
-        private int dx, dy;
+        boolean isClosed(int cell) {
+            return closedStamp[cell] == generation;
+        }
 
-        Action(int dx, int dy) {
-            this.dx = dx;
-            this.dy = dy;
+        void close(int cell) {
+            closedStamp[cell] = generation;
         }
 
-        public void setDynamicCoordinates(int dx, int dy) {
-            if (this == ESCALATOR || this == VORTEX) {
-                this.dx = dx;
-                this.dy = dy;
-            } else {
-                throw new UnsupportedOperationException("Cannot set dynamic coordinates for this action type.");
+        // pushes the cell if it has not been reached yet or is reached with a lower cost now
+        void relax(int cell, int g, int h, int parentCell, Action action) {
+            if (closedStamp[cell] == generation) {
+                return;
+            }
+            if (seenStamp[cell] == generation && gScore[cell] <= g) {
+                return;
             }
+            seenStamp[cell] = generation;
+            gScore[cell] = g;
+            parent[cell] = parentCell;
+            parentAction[cell] = action;
+            openSet.push(((g + h) << cellBits) | cell);
         }
     }
 }
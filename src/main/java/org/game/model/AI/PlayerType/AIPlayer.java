@@ -4,50 +4,128 @@ import org.game.model.*;
 import org.game.model.AI.*;
 import org.game.model.board.Board;
 import org.game.model.board.GeneralGoalManager;
+import org.game.model.clock.GameClock;
+import org.game.model.clock.Mailbox;
 import org.game.utils.ActionDelegator;
 import org.game.utils.Config;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 
 import static org.game.model.ActionType.*;
 
+/**
+ * An agent playing by its action tree. All of its planning runs on its own execution thread: what happens in the game
+ * (reported on the threads of the players that caused it) is posted to the mailbox of the agent and handled there
+ * between its actions, one event after the other in the order they were posted.
+ */
 public class AIPlayer extends Player  implements StateChangeListener, AIPlayerBehavior {
     private final AIPlayerType playerType;
     private Pawn currentlyPlannedPawn;
-    private ActionTree actionTree;
+    private final ActionTree actionTree;
+    private final RouteMemory routeMemory = new RouteMemory();
     private final GeneralGoalManager generalGoalManager;
     private final PathFinder pathFinder;
     private Thread actionExecutionThread;
-    private boolean isThreadSleeping = false;
+    private final Mailbox<Event> mailbox;
     private final List<Color> otherPawnMoves = new ArrayList<>();
     private int ticksWaiting = 0;
-    private boolean running = false;
-    private boolean thinking = false;
-    private boolean buildingTree = false;
+    private volatile boolean running = false;
+    // a do something is waiting for or being handled by the agent, further ones are ignored
+    private volatile boolean thinking = false;
     private boolean iWasLastToMove = false;
-    private boolean updatingOtherPawnMoves = false;
     private int currentMemoryCapacity;
     private final Board board;
+    private final GameClock clock;
     private ActionDelegator actionDelegator;
 
     public AIPlayer(List<ActionType> actions, String name, Board board, AIPlayerType playerType) {
         super(actions, name);
         this.board = board;
+        this.clock = board.getClock();
+        this.mailbox = new Mailbox<>(clock);
         currentlyPlannedPawn = board.getRandomPawn();
         actionTree = new ActionTree();
-        this.generalGoalManager = GeneralGoalManager.getInstance();
+        this.generalGoalManager = board.getGeneralGoalManager();
         this.pathFinder = new PathFinder(board.getTiles(), board);
         this.playerType = playerType;
         currentMemoryCapacity = playerType.getParameters().startingCapacity();
     }
 
+    // what happened in the game, handled one after the other by the execution thread
+    private sealed interface Event {
+    }
+
+    // the events the agent needs time to process remember when they happened, the time they waited in the mailbox
+    // (while the agent was busy) counts towards it
+    private record PawnMoved(Pawn pawn, Action action, Instant postedAt) implements Event {
+    }
+
+    private record Discovered(Pawn pawn, Instant postedAt) implements Event {
+    }
+
+    private record DoSomethingReceived() implements Event {
+    }
+
+    private record DoSomethingPlaced() implements Event {
+    }
+
+    private record TimerFlipped(Instant postedAt) implements Event {
+    }
+
+    private record FirstPhaseCompleted() implements Event {
+    }
+
     @Override
     public void startGame(){
         running = true;
-        buildActionTree();
         startActionExecution();
     }
 
+    private void handle(Event event) {
+        switch (event) {
+            case PawnMoved pawnMoved -> handlePawnMoved(pawnMoved.pawn(), pawnMoved.action(), pawnMoved.postedAt());
+            case Discovered discovered -> handleDiscovered(discovered.pawn(), discovered.postedAt());
+            case DoSomethingReceived doSomethingReceived -> handleDoSomething();
+            case DoSomethingPlaced doSomethingPlaced -> {
+                thinking = false;
+                ticksWaiting = 0;
+            }
+            case TimerFlipped timerFlipped -> handleTimerFlipped(timerFlipped.postedAt());
+            case FirstPhaseCompleted firstPhaseCompleted -> buildActionTree();
+        }
+    }
+
+    // events that came in while the agent was busy
+    private void handlePendingEvents() {
+        Event event;
+        while (running && (event = mailbox.poll()) != null) {
+            handle(event);
+        }
+    }
+
+    // waits for the next action of the agent, handling the events that arrive meanwhile one after the other
+    private void waitForNextAction(long millis) throws InterruptedException {
+        Instant end = clock.now().plusMillis(millis);
+        Event event;
+        while (running && (event = mailbox.take(Duration.between(clock.now(), end).toMillis())) != null) {
+            handle(event);
+        }
+    }
+
+    // lets the time pass while the agent processes, events arriving meanwhile wait in the mailbox
+    private void think(long millis) throws InterruptedException {
+        if (millis > 0) {
+            clock.sleep(millis);
+        }
+    }
+
+    // the processing time of an event that is left after it waited in the mailbox
+    private long remainingTime(Instant postedAt, long millis) {
+        return millis - Duration.between(postedAt, clock.now()).toMillis();
+    }
+
     public void setActionDelegator(ActionDelegator actionDelegator){
         this.actionDelegator = actionDelegator;
     }
@@ -61,69 +139,70 @@ public class AIPlayer extends Player  implements StateChangeListener, AIPlayerBe
         if(!running){
             return;
         }
-        buildingTree = true;
         ticksWaiting = 0;
-        if(!isThreadSleeping){
-            try{
-                isThreadSleeping = true;
-                int sleepTime = (int) (1000/playerType.getParameters().processingRatio());
-                Thread.sleep(sleepTime); // wait a bit to process
-                isThreadSleeping = false;
-            } catch (InterruptedException e) {
-                System.out.println("Build action tree sleep interrupted.");
-                Thread.currentThread().interrupt();
-            }
+        try{
+            int sleepTime = (int) (1000/playerType.getParameters().processingRatio());
+            think(sleepTime); // wait a bit to process
+        } catch (InterruptedException e) {
+            System.out.println("Build action tree sleep interrupted.");
+            Thread.currentThread().interrupt();
         }
 
-        while(updatingOtherPawnMoves){
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                System.out.println("Build action tree wait interrupted.");
-                Thread.currentThread().interrupt();
-            }
-        }
-        updatingOtherPawnMoves = true;
         if(otherPawnMoves.contains(currentlyPlannedPawn.getColor())){
             otherPawnMoves.removeIf(color -> color.equals(currentlyPlannedPawn.getColor()));
         }
-        updatingOtherPawnMoves = false;
 
-        actionTree = new ActionTree();
-        int currentChunkSize = 0;
-        List<Coordinate> goalCoordinates = generalGoalManager.getPawnGoalManager(currentlyPlannedPawn.getColor()).getAllGoals();
+        actionTree.clear();
+        Color pawnColor = currentlyPlannedPawn.getColor();
+        Coordinate pawnCoordinate = currentlyPlannedPawn.getCoordinate();
+        // the version changes with every card and the phase, the memorised plan of the pawn is only used for the same one
+        int boardVersion = board.getVersion();
+        List<Coordinate> goalCoordinates = generalGoalManager.getPawnGoalManager(pawnColor).getAllGoals();
         if(Config.PRINT_EVERYTHING){
-            System.out.println("Building action tree for pawn " + currentlyPlannedPawn.getColor() + " towards goals: " + goalCoordinates);
+            System.out.println("Building action tree for pawn " + pawnColor + " towards goals: " + goalCoordinates);
         }
 
-        // consider all possible goals of that color of hero in ascending order of distance
-
-        // order goalCoordinates by distance to lastMovedPawn
-        Map<Coordinate, Integer> distanceMap = new HashMap<>();
+        // only goals worth following take up memory, a non-positive priority would never be followed anyway
+        // the priorities of items and exits only depend on where the pawn is and the phase, the others are refreshed
+        Map<Coordinate, Float> priorities = new HashMap<>();
+        Map<Coordinate, Float> fixedPriorities = new HashMap<>();
         for (Coordinate goal : goalCoordinates) {
-            int estimatedDistance = pathFinder.findDistance(currentlyPlannedPawn.getCoordinate(), goal, playerType.getParameters().heuristicType());
-            distanceMap.put(goal, estimatedDistance);
-        }
-        if(Config.PRINT_EVERYTHING){
-            System.out.println("Distance map from pawn " + currentlyPlannedPawn.getColor() + " at " + currentlyPlannedPawn.getCoordinate() + ": " + distanceMap);
+            Float priority = routeMemory.getPriority(pawnColor, pawnCoordinate, boardVersion, goal);
+            if (priority == null) {
+                priority = calculatePriority(goal);
+            }
+            priorities.put(goal, priority);
+            TileType goalType = board.getTileAt(goal).getType();
+            if (goalType == TileType.GOAL_ITEM || goalType == TileType.GOAL_EXIT) {
+                fixedPriorities.put(goal, priority);
+            }
         }
+        goalCoordinates.removeIf(goal -> priorities.get(goal) <= 0);
 
-        // sort goalCoordinates by estimated distance from distanceMap
-        goalCoordinates.sort(Comparator.comparingInt(distanceMap::get));
-
-        // starting from the closest goal, find the shortest path
-        for (Coordinate goal : goalCoordinates) {
-            SearchPath path = pathFinder.findShortestPath(currentlyPlannedPawn.getCoordinate(), goal, currentlyPlannedPawn.getColor(), playerType.getParameters().heuristicType());
-            currentChunkSize += ChunkGenerator.countChunks(path);
-            if(currentChunkSize > currentMemoryCapacity){
-                if(Config.PRINT_EVERYTHING){
-                    System.out.println("Reached maximum chunk size limit while building action tree. Stopping further path additions.");
-                }
+        // the routes stay the same as long as the pawn has not moved and no card was placed, moves of other pawns do not
+        // change them (routes do not avoid pawns)
+        Map<Coordinate, List<Action>> routes = routeMemory.getRoutes(pawnColor, pawnCoordinate, boardVersion, currentMemoryCapacity, goalCoordinates);
+        if (routes == null) {
+            // consider the remaining goals in ascending order of distance,
+            // as many as fit into the memory capacity (one search reaches all of them)
+            Map<Coordinate, SearchPath> paths = pathFinder.findShortestPaths(pawnCoordinate, goalCoordinates, pawnColor, playerType.getParameters().heuristicType(), currentMemoryCapacity);
+            if(Config.PRINT_EVERYTHING && paths.size() < goalCoordinates.size()){
+                System.out.println("Only " + paths.size() + " of " + goalCoordinates.size() + " goals are reachable within the memory capacity of " + currentMemoryCapacity + " chunks.");
             }
-            float priority = calculatePriority(goal);
-            actionTree.addRoute(path.getActions(), priority);
+            routes = new LinkedHashMap<>();
+            for (Map.Entry<Coordinate, SearchPath> entry : paths.entrySet()) {
+                routes.put(entry.getKey(), entry.getValue().getActions());
+            }
+            routeMemory.remember(pawnColor, pawnCoordinate, boardVersion, fixedPriorities, currentMemoryCapacity, goalCoordinates, routes);
+        }
+        else if(Config.PRINT_EVERYTHING){
+            System.out.println("Reusing the routes of the last plan for pawn " + pawnColor + ".");
+        }
+
+        for (Map.Entry<Coordinate, List<Action>> entry : routes.entrySet()) {
+            actionTree.addRoute(entry.getValue(), priorities.get(entry.getKey()));
             if(Config.PRINT_EVERYTHING){
-                System.out.println("Added path to goal " + goal + " with estimated distance " + distanceMap.get(goal) + " to action tree.");
+                System.out.println("Added path to goal " + entry.getKey() + " of length " + entry.getValue().size() + " to action tree.");
             }
         }
 
@@ -151,12 +230,14 @@ public class AIPlayer extends Player  implements StateChangeListener, AIPlayerBe
             System.out.println("Planned for pawn of color: " + currentlyPlannedPawn.getColor());
             actionTree.printTree(getName(), super.getActions());
         }
-
-        buildingTree = false;
     }
 
     @Override
     public void onPawnMoved(Pawn movedPawn, Action action) {
+        mailbox.post(new PawnMoved(movedPawn, action, clock.now()));
+    }
+
+    private void handlePawnMoved(Pawn movedPawn, Action action, Instant postedAt) {
         if(playerType.getParameters().stressedByPlacingDoSomething()){
             // re-set capacity when someone else moved
             currentMemoryCapacity = playerType.getParameters().startingCapacity();
@@ -164,15 +245,13 @@ public class AIPlayer extends Player  implements StateChangeListener, AIPlayerBe
         ticksWaiting = 0;
         iWasLastToMove = canPerformAction(action.getType());
 
-        if(!isThreadSleeping && running){
+        if(running){
             try{
-                isThreadSleeping = true;
                 int sleepTime = (int) (500/playerType.getParameters().processingRatio());
-                Thread.sleep(sleepTime); // wait a bit to process
-                isThreadSleeping = false;
+                think(remainingTime(postedAt, sleepTime)); // wait a bit to process
             } catch (InterruptedException e) {
                 System.out.println("On pawn moved sleep interrupted.");
-                actionExecutionThread.interrupt();
+                Thread.currentThread().interrupt();
             }
         }
 
@@ -194,14 +273,6 @@ public class AIPlayer extends Player  implements StateChangeListener, AIPlayerBe
             }
         }
         else{
-            while(updatingOtherPawnMoves){
-                try {
-                    Thread.sleep(100);
-                } catch (InterruptedException e) {
-                    System.out.println("On pawn moved wait interrupted.");
-                    Thread.currentThread().interrupt();
-                }
-            }
             otherPawnMoves.add(movedPawn.getColor());
             // if that pawn has been moved more times than my blindness (and is not the pawn I have tree for), re-build
             if(otherPawnMoves.stream().filter(color -> color.equals(movedPawn.getColor())).count() >= playerType.getParameters().blindness()){
@@ -214,13 +285,15 @@ public class AIPlayer extends Player  implements StateChangeListener, AIPlayerBe
 
     @Override
     public void onDiscovered(Pawn pawn){
+        mailbox.post(new Discovered(pawn, clock.now()));
+    }
+
+    private void handleDiscovered(Pawn pawn, Instant postedAt){
         // sleep for 7 seconds to process
-        if(!isThreadSleeping && running){
+        if(running){
             try{
-                isThreadSleeping = true;
                 int sleepTime = (int) (7000/playerType.getParameters().processingRatio());
-                Thread.sleep(sleepTime); // wait a bit to process
-                isThreadSleeping = false;
+                think(remainingTime(postedAt, sleepTime)); // wait a bit to process
             } catch (InterruptedException e) {
                 System.out.println("On discovered sleep interrupted.");
                 Thread.currentThread().interrupt();
@@ -229,7 +302,7 @@ public class AIPlayer extends Player  implements StateChangeListener, AIPlayerBe
         iWasLastToMove = canPerformAction(DISCOVER);
 
         if(pawn.getColor() == currentlyPlannedPawn.getColor()) {
-            boolean moved = actionTree.takeAction(new Action(DISCOVER));
+            boolean moved = actionTree.takeAction(Action.of(DISCOVER));
             if(actionTree.isEmpty()){
                 // re-build tree, all actions used up
                 buildActionTree();
@@ -252,36 +325,34 @@ public class AIPlayer extends Player  implements StateChangeListener, AIPlayerBe
 
     @Override
     public void startActionExecution() {
-        actionExecutionThread = new Thread(() -> {
+        actionExecutionThread = clock.newThread(() -> {
+            buildActionTree();
             while (!Thread.currentThread().isInterrupted()) {
                 try {
+                    handlePendingEvents();
                     // only wait if someone else was moving
                     // if I was moving last, continue moving (go 3 left in once ex.)
-                    if(!isThreadSleeping && running){
-                        isThreadSleeping = true;
+                    if(running){
                         int sleepTime = (int) (700/playerType.getParameters().processingRatio());
-                        Thread.sleep(sleepTime); // Wait for 1 second
-                        isThreadSleeping = false;
-                    }
-
-                    if(buildingTree){
-                        continue; // skip this iteration if the tree is being built
+                        waitForNextAction(sleepTime); // Wait for 1 second
                     }
-                    if(thinking){
-                        continue; // skip this iteration if currently occupied with do something
+                    else{
+                        return; // the game has ended
                     }
+
                     Action bestAction = actionTree.bestAction();
                     while(bestAction == null){
+                        if(!running){
+                            return; // the game has ended, nothing will be worth doing anymore
+                        }
                         // nothing is worth doing
                         if(Config.PRINT_EVERYTHING) {
                             System.out.println("No action is worth taking (" + currentlyPlannedPawn.getColor() + "). Rebuilding action tree...");
                         }
                         buildActionTree(); // Rebuild the tree if no action is available
-                        if(!isThreadSleeping && running){
-                            isThreadSleeping = true;
+                        if(running){
                             int sleepTime = (int) (3000/playerType.getParameters().processingRatio());
-                            Thread.sleep(sleepTime); // Wait for 3 seconds
-                            isThreadSleeping = false;
+                            think(sleepTime); // Wait for 3 seconds
                         }
                         bestAction = actionTree.bestAction();
                     }
@@ -291,11 +362,9 @@ public class AIPlayer extends Player  implements StateChangeListener, AIPlayerBe
                                 System.out.println("No valid action to take. Rebuilding action tree...");
                             }
                             buildActionTree(); // Rebuild the tree if no action is available
-                            if(!isThreadSleeping && running){
-                                isThreadSleeping = true;
+                            if(running){
                                 int sleepTime = (int) (3000/playerType.getParameters().processingRatio());
-                                Thread.sleep(sleepTime); // Wait for 3 seconds
-                                isThreadSleeping = false;
+                                think(sleepTime); // Wait for 3 seconds
                             }
                         }
                         else{
@@ -409,7 +478,7 @@ public class AIPlayer extends Player  implements StateChangeListener, AIPlayerBe
             boolean canDoAnything = false;
             for(ActionType actionICanPerform : super.getActions()){
                 if(applicableActions.contains(actionICanPerform)){
-                    Action action = new Action(actionICanPerform);
+                    Action action = Action.of(actionICanPerform);
                     boolean moved = getActionDelegator().movePawn(blockingPawn.getColor(), action);
                     if(moved){
                         // come back to the initial pawn
@@ -436,7 +505,7 @@ public class AIPlayer extends Player  implements StateChangeListener, AIPlayerBe
     @Override
     public void onFirstPhaseCompleted(){
         // force build of action tree for all heroes
-        buildActionTree();
+        mailbox.post(new FirstPhaseCompleted());
     }
 
     public float calculatePriority(Coordinate goal){
@@ -462,7 +531,7 @@ public class AIPlayer extends Player  implements StateChangeListener, AIPlayerBe
                     }
                 }
                 // higher priority for closer discovery goals, give one penalty for each chunk (5 nodes)
-                int distance = pathFinder.findDistance(pawnCoordinate, goal, playerType.getParameters().heuristicType());
+                int distance = pathFinder.findGoalDistance(pawnCoordinate, goal, currentlyPlannedPawn.getColor(), playerType.getParameters().heuristicType());
                 float chunkPenalty = ChunkGenerator.estimateChunks(distance);
 
 
@@ -488,7 +557,7 @@ public class AIPlayer extends Player  implements StateChangeListener, AIPlayerBe
             case TIMER: {
                 // following the logarithmic function
                 int timerPriority = getActionDelegator().getTimerPayoff(playerType.getParameters().timerLogBase());
-                int distance = pathFinder.findDistance(pawnCoordinate, goal, playerType.getParameters().heuristicType());
+                int distance = pathFinder.findGoalDistance(pawnCoordinate, goal, currentlyPlannedPawn.getColor(), playerType.getParameters().heuristicType());
                 float chunkPenalty = ChunkGenerator.estimateChunks(distance);
 
                 // if I am looking at the timer option, I should get stressed if it affects me
@@ -504,6 +573,10 @@ public class AIPlayer extends Player  implements StateChangeListener, AIPlayerBe
     }
 
     public void endGame(){
+        if(Config.PRINT_EVERYTHING){
+            System.out.println(getName() + " expanded " + pathFinder.getExpandedCells() + " cells with heuristic " + playerType.getParameters().heuristicType());
+            System.out.println(getName() + " reused the routes of " + routeMemory.getReusedPlans() + " plans and planned " + routeMemory.getNewPlans() + " new ones");
+        }
         running = false;
         if(actionExecutionThread != null && actionExecutionThread.isAlive()){
             actionExecutionThread.interrupt();
@@ -515,7 +588,6 @@ public class AIPlayer extends Player  implements StateChangeListener, AIPlayerBe
         if(Config.PRINT_EVERYTHING) {
             System.out.println("Someone is asking me to do something!");
         }
-        ticksWaiting = 0;
         if(thinking){
             if(Config.PRINT_EVERYTHING) {
                 System.out.println("I am already thinking, no need to ask me again.");
@@ -523,6 +595,11 @@ public class AIPlayer extends Player  implements StateChangeListener, AIPlayerBe
             return;
         }
         thinking = true;
+        mailbox.post(new DoSomethingReceived());
+    }
+
+    private void handleDoSomething() {
+        ticksWaiting = 0;
 
         if(playerType.getParameters().stressedByDoSomething()){
             currentMemoryCapacity--;
@@ -536,6 +613,10 @@ public class AIPlayer extends Player  implements StateChangeListener, AIPlayerBe
         }
         // while nothing is worth doing, re-build
         while(bestAction == null){
+            if(!running){
+                thinking = false;
+                return; // the game has ended
+            }
             if(Config.PRINT_EVERYTHING) {
                 System.out.println("No action is worth taking (" + currentlyPlannedPawn.getColor() + "). Rebuilding action tree...");
             }
@@ -650,8 +731,7 @@ public class AIPlayer extends Player  implements StateChangeListener, AIPlayerBe
 
     @Override
     public void doSomethingPlaced(Player player){
-        thinking = false;
-        ticksWaiting = 0;
+        mailbox.post(new DoSomethingPlaced());
     }
 
     private void placeDoSomething(ActionType action){
@@ -677,14 +757,16 @@ public class AIPlayer extends Player  implements StateChangeListener, AIPlayerBe
     }
 
     public void onTimerFlipped(int timeLeft){
+        mailbox.post(new TimerFlipped(clock.now()));
+    }
+
+    private void handleTimerFlipped(Instant postedAt){
         // re-set capacity (nobody should be stressed after timer flip)
         currentMemoryCapacity = playerType.getParameters().startingCapacity();
         // delay for 3 seconds
         try{
-            if(!isThreadSleeping && running){
-                isThreadSleeping = true;
-                Thread.sleep(3000);
-                isThreadSleeping = false;
+            if(running){
+                think(remainingTime(postedAt, 3000));
             }
         } catch (InterruptedException e) {
             System.out.println("On timer flipped sleep interrupted.");
@@ -5,7 +5,7 @@ package org.game.model.AI.PlayerType;
  * @param processingRatio        determines the delay (processingRatio 2 => half delay) in processing information
  * @param blindness              blindness: 0 always notices moving pawn, 1 sometimes misses, 2 misses often
  * @param patience               how many ticks to wait before placing do something token
- * @param heuristicType          heuristic (0: euclidian, 1: manhattan)
+ * @param heuristicType          heuristic (0: euclidian, 1: manhattan, 2: landmarks)
  * @param timerLogBase           timer log base for payoff calculation
  * @param stressedByDoSomething  stressing factors
  * @param stubborn               if stubborn, they don't panic but place do something further if no actions found
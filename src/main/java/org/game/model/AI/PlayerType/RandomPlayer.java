@@ -2,6 +2,7 @@ package org.game.model.AI.PlayerType;
 
 import org.game.model.ActionType;
 import org.game.model.Player;
+import org.game.model.clock.GameClock;
 import org.game.utils.ActionDelegator;
 
 import java.util.List;
@@ -9,12 +10,14 @@ import java.util.List;
 public class RandomPlayer extends Player {
     private ActionDelegator actionDelegator;
     private final AIPlayerType playerType;
+    private final GameClock clock;
     private boolean running = true;
     Thread actionExecutionThread;
 
-    public RandomPlayer(List<ActionType> actions, String name, AIPlayerType playerType) {
+    public RandomPlayer(List<ActionType> actions, String name, AIPlayerType playerType, GameClock clock) {
         super(actions, name);
         this.playerType = playerType;
+        this.clock = clock;
     }
 
     public void setActionDelegator(ActionDelegator actionDelegator){
@@ -27,13 +30,13 @@ public class RandomPlayer extends Player {
 
     public void startGame(){
         running = true;
-        actionExecutionThread = new Thread(() -> {
+        actionExecutionThread = clock.newThread(() -> {
             System.out.println("RandomPlayer " + super.getName() + " starting execution thread.");
             while (running && !Thread.currentThread().isInterrupted()) {
                 try {
                     // Sleep for a random time between 3 and 5 seconds
                     long sleepTimeMillis = 3000 + (long)(Math.random() * 2000);
-                    Thread.sleep(sleepTimeMillis);
+                    clock.sleep(sleepTimeMillis);
                 } catch (InterruptedException e) {
                     System.out.println("RandomPlayer " + super.getName() + " interrupted, stopping execution thread.");
                 }
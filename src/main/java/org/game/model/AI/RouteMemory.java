@@ -0,0 +1,68 @@
+package org.game.model.AI;
+
+import org.game.model.Action;
+import org.game.model.Color;
+import org.game.model.Coordinate;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The last plan of one player for each pawn: the routes to the goals and the priorities that only depend on where the
+ * pawn stands and the phase. Routes ignore the other pawns, so a plan stays valid until its pawn moves, a card is
+ * placed or the phase changes (the board version covers the last two). Re-planning for a pawn after moves of the
+ * others then only has to refresh the priorities that depend on the timer or the discoveries.
+ */
+public class RouteMemory {
+    private final Map<Color, Plan> plans = new EnumMap<>(Color.class);
+    private final LongAdder reusedPlans = new LongAdder();
+    private final LongAdder newPlans = new LongAdder();
+
+    private record Plan(Coordinate start, int boardVersion, Map<Coordinate, Float> fixedPriorities, int memoryCapacity,
+                        List<Coordinate> goals, Map<Coordinate, List<Action>> routes) {
+    }
+
+    // priority of the goal in the last plan for the pawn if it is still valid and the priority did not depend on the
+    // timer or the discoveries, null otherwise
+    public synchronized Float getPriority(Color pawnColor, Coordinate start, int boardVersion, Coordinate goal) {
+        Plan plan = validPlan(pawnColor, start, boardVersion);
+        return plan == null ? null : plan.fixedPriorities().get(goal);
+    }
+
+    // routes of the last plan for the pawn if it was made for the same goals and memory capacity, null otherwise
+    public synchronized Map<Coordinate, List<Action>> getRoutes(Color pawnColor, Coordinate start, int boardVersion, int memoryCapacity, List<Coordinate> goals) {
+        Plan plan = validPlan(pawnColor, start, boardVersion);
+        if (plan == null || plan.memoryCapacity() != memoryCapacity || !plan.goals().equals(goals)) {
+            return null;
+        }
+        reusedPlans.increment();
+        return plan.routes();
+    }
+
+    public synchronized void remember(Color pawnColor, Coordinate start, int boardVersion, Map<Coordinate, Float> fixedPriorities,
+                                      int memoryCapacity, List<Coordinate> goals, Map<Coordinate, List<Action>> routes) {
+        newPlans.increment();
+        plans.put(pawnColor, new Plan(start, boardVersion, Map.copyOf(fixedPriorities), memoryCapacity, List.copyOf(goals),
+                Collections.unmodifiableMap(new LinkedHashMap<>(routes))));
+    }
+
+    private Plan validPlan(Color pawnColor, Coordinate start, int boardVersion) {
+        Plan plan = plans.get(pawnColor);
+        if (plan == null || plan.boardVersion() != boardVersion || !plan.start().equals(start)) {
+            return null;
+        }
+        return plan;
+    }
+
+    public long getReusedPlans() {
+        return reusedPlans.sum();
+    }
+
+    public long getNewPlans() {
+        return newPlans.sum();
+    }
+}
@@ -3,17 +3,36 @@ package org.game.model;
 
 import java.util.Objects;
 
+/**
+ * An action of a pawn. Actions are immutable: there is one shared instance per type without a target (of), only a
+ * vortex to a given target is created per use (vortex).
+ */
 public class Action {
-    private final ActionType type;
-    private Coordinate vortexCoordinate;
+    private static final Action[] SIMPLE_ACTIONS = new Action[ActionType.values().length];
 
-    public Action(ActionType type){
-        this.type = type;
+    static {
+        for (ActionType type : ActionType.values()) {
+            SIMPLE_ACTIONS[type.ordinal()] = new Action(type, null);
+        }
     }
 
-    public Action(ActionType type, Coordinate vortexCoordinate){
+    private final ActionType type;
+    private final Coordinate vortexCoordinate;
+    private final int hash;
+
+    private Action(ActionType type, Coordinate vortexCoordinate){
         this.type = type;
         this.vortexCoordinate = vortexCoordinate;
+        this.hash = vortexCoordinate != null ? Objects.hash(type, vortexCoordinate) : Objects.hash(type);
+    }
+
+    // the shared action of the type, a vortex without a target for VORTEX
+    public static Action of(ActionType type){
+        return SIMPLE_ACTIONS[type.ordinal()];
+    }
+
+    public static Action vortex(Coordinate vortexCoordinate){
+        return new Action(ActionType.VORTEX, vortexCoordinate);
     }
 
     public ActionType getType(){
@@ -45,9 +64,6 @@ public class Action {
 
     @Override
     public int hashCode() {
-        if(vortexCoordinate != null){
-            return Objects.hash(type, vortexCoordinate);
-        }
-        return Objects.hash(type);
+        return hash;
     }
 }
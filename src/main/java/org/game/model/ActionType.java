@@ -1,11 +1,36 @@
 package org.game.model;
 
 public enum ActionType {
-    MOVE_NORTH,
-    MOVE_SOUTH,
-    MOVE_EAST,
-    MOVE_WEST,
-    DISCOVER,
-    VORTEX,
-    ESCALATOR
-}
\ No newline at end of file
+    MOVE_NORTH('n'),
+    MOVE_SOUTH('s'),
+    MOVE_EAST('e'),
+    MOVE_WEST('w'),
+    DISCOVER('d'),
+    VORTEX('v'),
+    ESCALATOR('x');
+
+    // type of each code, indexed by the code
+    private static final ActionType[] BY_CODE = new ActionType[128];
+
+    static {
+        for (ActionType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    // one byte (an ASCII letter) for the type, used in the game records and the input strings of replays
+    private final byte code;
+
+    ActionType(char code) {
+        this.code = (byte) code;
+    }
+
+    public char getCode() {
+        return (char) code;
+    }
+
+    // null if no type has the code
+    public static ActionType fromCode(char code) {
+        return code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
@@ -1,30 +1,67 @@
 package org.game.model;
 
+/**
+ * A card in one of its four orientations. All orientations are built when the card is created and share one array,
+ * so rotating a card only selects another orientation and never changes or copies its tiles.
+ */
 public class Card {
     private final int id;
-    private Tile[][] tiles;
+    private final Tile[][] tiles;
+    // quarter turns clockwise from the card as it was loaded
+    private final int rotation;
+    private final Card[] orientations;
 
     public Card(int id, Tile[][] tiles) {
         this.id = id;
         this.tiles = tiles;
+        this.rotation = 0;
+        this.orientations = new Card[4];
+        orientations[0] = this;
+        Tile[][] rotated = tiles;
+        for (int quarterTurns = 1; quarterTurns < 4; quarterTurns++) {
+            rotated = rotateTiles(rotated);
+            orientations[quarterTurns] = new Card(id, rotated, quarterTurns, orientations);
+        }
+    }
+
+    private Card(int id, Tile[][] tiles, int rotation, Card[] orientations) {
+        this.id = id;
+        this.tiles = tiles;
+        this.rotation = rotation;
+        this.orientations = orientations;
     }
 
     public int getId() {
         return id;
     }
 
+    // shared by every placement of the card, must not be changed
     public Tile[][] getTiles() {
         return tiles;
     }
 
-
     public Card rotate90(){
         // rotate 90 degrees clockwise
+        return orientations[(rotation + 1) % 4];
+    }
+
+    public Card rotate180() {
+        // rotate 180 degrees
+        return orientations[(rotation + 2) % 4];
+    }
+
+    public Card rotate270() {
+        // rotate 270 degrees clockwise (or 90 degrees counter-clockwise)
+        return orientations[(rotation + 3) % 4];
+    }
+
+    // the tiles turned 90 degrees clockwise
+    public static Tile[][] rotateTiles(Tile[][] tiles) {
         int n = tiles.length;
         Tile[][] rotated = new Tile[n][n];
         for (int i = 0; i < n; i++) {
             for (int j = 0; j < n; j++) {
-                rotated[j][tiles.length - 1 - i] = new Tile(
+                rotated[j][n - 1 - i] = new Tile(
                         tiles[i][j].getType(),
                         tiles[i][j].getColor(),
                         tiles[i][j].hasWallLeft(), // new up is old left
@@ -34,23 +71,8 @@ public class Card {
                         tiles[i][j].getCardId(),
                         tiles[i][j].getEscalator()
                 );
-
             }
         }
-        this.tiles = rotated;
-        return this;
-    }
-
-
-    public Card rotate180() {
-        // rotate 180 degrees
-        this.rotate90().rotate90();
-        return this;
-    }
-
-    public Card rotate270() {
-        // rotate 270 degrees clockwise (or 90 degrees counter-clockwise)
-        this.rotate90().rotate90().rotate90();
-        return this;
+        return rotated;
     }
 }
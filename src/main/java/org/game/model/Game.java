@@ -1,12 +1,15 @@
 package org.game.model;
 
+import org.game.model.AI.PathFinder;
 import org.game.model.AI.PlayerType.AIPlayerType;
 import org.game.model.AI.PlayerType.AIPlayer;
 import org.game.model.AI.PlayerType.RandomPlayer;
 import org.game.model.AI.StateChangeListener;
 import org.game.model.board.Board;
-import org.game.model.board.GeneralGoalManager;
+import org.game.model.clock.GameClock;
+import org.game.model.clock.RealTimeClock;
 import org.game.utils.ActionDelegator;
+import org.game.utils.Catalog;
 import org.game.utils.Config;
 import org.game.utils.JsonReader;
 
@@ -20,12 +23,20 @@ public class Game {
     private StackOfCards unplayedCards;
     private final JsonReader jsonReader = new JsonReader();
     private Card startingCard;
-    private final int boardMaxSize = 45;
+    private final int boardMaxSize;
     private List<Player> players;
     private final List<StateChangeListener> listeners = new ArrayList<>();
+    private final GameClock clock;
 
-    public Game(int numberOfPlayers, List<AIPlayerType> aiPlayerTypes) {
+    public Game(int numberOfPlayers, List<AIPlayerType> aiPlayerTypes, GameClock clock) {
+        this(numberOfPlayers, aiPlayerTypes, clock, Config.BOARD_SIZE);
+    }
+
+    public Game(int numberOfPlayers, List<AIPlayerType> aiPlayerTypes, GameClock clock, int boardSize) {
+        this.clock = clock;
+        this.boardMaxSize = boardSize;
         initializeCards();
+        checkBoardSize();
         initializeBoard();
         initializePlayers(numberOfPlayers, aiPlayerTypes);
         if(Config.PRINT_EVERYTHING){
@@ -34,13 +45,31 @@ public class Game {
     }
 
     public Game(Map<Color, Coordinate> initialPawnPositions){
+        // replays are always shown in real time
+        this.clock = new RealTimeClock();
+        this.boardMaxSize = Config.BOARD_SIZE;
         initializeCards();
         initializeBoardWithGivenPawns(initialPawnPositions);
         // no players in this constructor
     }
 
+    private void checkBoardSize(){
+        // the board adds its border around the playing area
+        int rows = boardMaxSize + 2 * Board.BORDER;
+        if (rows > PathFinder.MAX_BOARD_SIZE) {
+            int maxSize = PathFinder.MAX_BOARD_SIZE - 2 * Board.BORDER;
+            throw new RuntimeException("Board size " + boardMaxSize + " is too large, the path finder supports boards up to " + maxSize + "x" + maxSize);
+        }
+        // the starting card is placed from the middle of the board, with room for a card on every side of it
+        int cardSize = startingCard.getTiles().length;
+        if (rows / 2 - cardSize < Board.BORDER || rows / 2 + 2 * cardSize > rows - Board.BORDER) {
+            throw new RuntimeException("Board size " + boardMaxSize + " is too small, the starting card needs room for a card on every side");
+        }
+    }
+
     private void initializeCards(){
-        List<Card> allCards = jsonReader.loadCardsFromJson();
+        // the cards are shared by all games, this game shuffles its own list of them
+        List<Card> allCards = new ArrayList<>(Catalog.get().getCards());
         // find the starting card with id startingId
         Card startingCard = null;
         for (Card card : allCards) {
@@ -88,7 +117,7 @@ public class Game {
     private void initializeBoard(){
         List<Pawn> initialPawns = initializePawns();
 
-        this.board = new Board(boardMaxSize);
+        this.board = new Board(boardMaxSize, clock);
         board.initializeStartingTile(this.startingCard);
         board.initializeStartingPawns(initialPawns);
         // board.testPathFinder();
@@ -100,7 +129,7 @@ public class Game {
             initialPawns.add(new Pawn(entry.getValue(), entry.getKey()));
         }
 
-        this.board = new Board(boardMaxSize);
+        this.board = new Board(boardMaxSize, clock);
         board.initializeStartingTile(this.startingCard);
         board.initializeStartingPawns(initialPawns);
     }
@@ -109,6 +138,10 @@ public class Game {
         return board;
     }
 
+    public GameClock getClock() {
+        return clock;
+    }
+
     private List<Pawn> initializePawns(){
         int middle = (boardMaxSize / 2)+1;
         List<Pawn> pawns;
@@ -205,7 +238,9 @@ public class Game {
                 randomPlayer.endGame();
             }
         }
-        GeneralGoalManager.getInstance().reset();
+        if(Config.PRINT_EVERYTHING){
+            System.out.println("Path cache hits: " + board.getPathCache().getHits() + ", misses: " + board.getPathCache().getMisses());
+        }
     }
 
     public void setGameWonCallback(Runnable callback){
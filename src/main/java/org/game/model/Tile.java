@@ -8,9 +8,7 @@ public class Tile {
     private final boolean wallLeft;
     private final boolean wallRight;
     private final int cardId;
-    private boolean isOccupied = false;
-    private String escalator;
-    private boolean used = false;
+    private final String escalator;
 
     public Tile(TileType type, Color color, boolean wallUp, boolean wallDown, boolean wallLeft, boolean wallRight, int cardId) {
         this.type = type;
@@ -20,6 +18,7 @@ public class Tile {
         this.wallRight = wallRight;
         this.color = color;
         this.cardId = cardId;
+        this.escalator = null;
     }
 
     public Tile(TileType type, Color color, boolean wallUp, boolean wallDown, boolean wallLeft, boolean wallRight, int cardId, String escalator) {
@@ -79,20 +78,4 @@ public class Tile {
                 ", wallRight=" + wallRight +
                 '}';
     }
-
-    public boolean isOccupied() {
-        return isOccupied;
-    }
-
-    public void setOccupied(boolean occupied) {
-        isOccupied = occupied;
-    }
-
-    public boolean isUsed() {
-        return used;
-    }
-
-    public void setUsed(boolean used) {
-        this.used = used;
-    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package org.game.model;
 
+import org.game.model.clock.GameClock;
 import org.game.utils.Config;
 
 public class Timer {
@@ -8,8 +9,10 @@ public class Timer {
     private Runnable onTimerFinishCallback;
     private Thread timerThread;
     private volatile boolean running;
+    private final GameClock clock;
 
-    public Timer(){
+    public Timer(GameClock clock){
+        this.clock = clock;
         timeLeftInTimer = maxTime;
         startTimer();
     }
@@ -42,10 +45,10 @@ public class Timer {
     // execute secondPassed every 1 second
     public void startTimer(){
         running = true;
-        timerThread = new Thread(() -> {
+        timerThread = clock.newThread(() -> {
             try {
                 while (running && timeLeftInTimer >= 0) {
-                    Thread.sleep(1000);
+                    clock.sleep(1000);
                     secondPassed();
                 }
             } catch (InterruptedException e) {
@@ -0,0 +1,161 @@
+package org.game.model.board;
+
+import org.game.model.Color;
+import org.game.model.Coordinate;
+import org.game.model.Tile;
+import org.game.model.TileType;
+import org.game.model.AI.PathFinder;
+
+/**
+ * The board as bit masks with one bit per cell (indexed by x * cols + y, 64 cells per long): the cells that have a
+ * tile, the occupied cells, the cell of each pawn, the tiles with a wall on each side, the tiles of each type and
+ * colour, and the used timers. Whether a pawn can step in a direction is then a few bit tests (canStep).
+ * The masks are changed as tiles are placed, pawns move and timers are used. A change rewrites the whole word of the
+ * cell, so the pawn moves (made by the threads of all the players) are applied one at a time by the PawnManager,
+ * readers see each word either before or after a move.
+ */
+public class Bitboards {
+    private static final PathFinder.Action[] MOVES = {PathFinder.Action.MOVE_NORTH, PathFinder.Action.MOVE_SOUTH, PathFinder.Action.MOVE_WEST, PathFinder.Action.MOVE_EAST};
+
+    private final Board board;
+    private final int rows;
+    private final int cols;
+    private final long[] tiles;
+    private final long[] occupied;
+    private final long[][] pawns;
+    // tiles with a wall on the side of each move, indexed by the ordinal of the move
+    private final long[][] walls;
+    private final long[][] types;
+    private final long[][] colors;
+    // timers that have been used in this game
+    private final long[] usedTimers;
+
+    public Bitboards(Board board) {
+        this.board = board;
+        this.rows = board.getNumRows();
+        this.cols = board.getNumCols();
+        int words = (rows * cols + 63) >>> 6;
+        this.tiles = new long[words];
+        this.occupied = new long[words];
+        this.pawns = new long[Color.values().length][words];
+        this.walls = new long[MOVES.length][words];
+        this.types = new long[TileType.values().length][words];
+        this.colors = new long[Color.values().length][words];
+        this.usedTimers = new long[words];
+    }
+
+    public int cellOf(int x, int y) {
+        return x * cols + y;
+    }
+
+    public int cellOf(Coordinate coordinate) {
+        return cellOf(coordinate.x(), coordinate.y());
+    }
+
+    public void tilesAdded(Coordinate leftTopCorner, int size) {
+        Tile[][] boardTiles = board.getTiles();
+        for (int x = leftTopCorner.x(); x < leftTopCorner.x() + size; x++) {
+            for (int y = leftTopCorner.y(); y < leftTopCorner.y() + size; y++) {
+                Tile tile = boardTiles[x][y];
+                if (tile == null) {
+                    continue;
+                }
+                int cell = cellOf(x, y);
+                set(tiles, cell);
+                set(types[tile.getType().ordinal()], cell);
+                set(colors[tile.getColor().ordinal()], cell);
+                if (tile.hasWallUp()) {
+                    set(walls[PathFinder.Action.MOVE_NORTH.ordinal()], cell);
+                }
+                if (tile.hasWallDown()) {
+                    set(walls[PathFinder.Action.MOVE_SOUTH.ordinal()], cell);
+                }
+                if (tile.hasWallLeft()) {
+                    set(walls[PathFinder.Action.MOVE_WEST.ordinal()], cell);
+                }
+                if (tile.hasWallRight()) {
+                    set(walls[PathFinder.Action.MOVE_EAST.ordinal()], cell);
+                }
+            }
+        }
+    }
+
+    public void pawnPlaced(Color color, Coordinate coordinate) {
+        int cell = cellOf(coordinate);
+        set(pawns[color.ordinal()], cell);
+        set(occupied, cell);
+    }
+
+    public void pawnMoved(Color color, Coordinate from, Coordinate to) {
+        int cell = cellOf(from);
+        clear(pawns[color.ordinal()], cell);
+        clear(occupied, cell);
+        pawnPlaced(color, to);
+    }
+
+    public void timerUsed(int cell) {
+        set(usedTimers, cell);
+    }
+
+    public boolean isTimerUsed(int cell) {
+        return isSet(usedTimers, cell);
+    }
+
+    public boolean hasTile(int cell) {
+        return isSet(tiles, cell);
+    }
+
+    public boolean isOccupied(int cell) {
+        return isSet(occupied, cell);
+    }
+
+    // a tile no pawn stands on
+    public boolean isFree(int cell) {
+        return isSet(tiles, cell) && !isSet(occupied, cell);
+    }
+
+    public boolean isPawnAt(Color color, int cell) {
+        return isSet(pawns[color.ordinal()], cell);
+    }
+
+    public boolean isType(int cell, TileType type) {
+        return isSet(types[type.ordinal()], cell);
+    }
+
+    public boolean isColor(int cell, Color color) {
+        return isSet(colors[color.ordinal()], cell);
+    }
+
+    public boolean hasWall(int cell, PathFinder.Action move) {
+        return isSet(walls[move.ordinal()], cell);
+    }
+
+    // the cell next to the cell in the direction of the move, -1 if it is off the board
+    public int neighbourOf(int cell, PathFinder.Action move) {
+        int x = cell / cols;
+        int newX = x + move.dx();
+        int newY = cell - x * cols + move.dy();
+        if (newX < 0 || newX >= rows || newY < 0 || newY >= cols) {
+            return -1;
+        }
+        return cellOf(newX, newY);
+    }
+
+    // a pawn on the tile of the cell can step in the direction: no wall on that side of its tile and a free tile behind it
+    public boolean canStep(int cell, PathFinder.Action move) {
+        int next = neighbourOf(cell, move);
+        return next != -1 && hasTile(cell) && !hasWall(cell, move) && isFree(next);
+    }
+
+    private static void set(long[] mask, int cell) {
+        mask[cell >>> 6] |= 1L << cell;
+    }
+
+    private static void clear(long[] mask, int cell) {
+        mask[cell >>> 6] &= ~(1L << cell);
+    }
+
+    private static boolean isSet(long[] mask, int cell) {
+        return (mask[cell >>> 6] & (1L << cell)) != 0;
+    }
+}
@@ -1,37 +1,73 @@
 package org.game.model.board;
 
 import org.game.model.*;
+import org.game.model.AI.PathCache;
 import org.game.model.AI.PathFinder;
+import org.game.model.clock.GameClock;
 import org.game.utils.Config;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Board {
+    // cells next to the left, right, top and bottom side of a card that a card can be discovered from, relative to its left top corner
+    private static final int[][] ENTRY_OFFSETS = {{1, -1}, {2, 4}, {-1, 2}, {4, 1}};
+
     // store tiles as a 2-d array of size 70x70
     private final Tile[][] tiles;
     private final int numRows;
     private final int numCols;
+    // one coordinate per cell (x * numCols + y), shared so that turning a cell back into a coordinate allocates nothing
+    private final Coordinate[] coordinates;
     private List<Pawn> pawns;
+    private final Pawn[] pawnsByColor = new Pawn[Color.values().length];
     private final List<BoardEscalator> escalators = new java.util.ArrayList<>();
     private final List<BoardVortex> yellowVortices = new java.util.ArrayList<>();
     private final List<BoardVortex> purpleVortices = new java.util.ArrayList<>();
     private final List<BoardVortex> greenVortices = new java.util.ArrayList<>();
     private final List<BoardVortex> orangeVortices = new java.util.ArrayList<>();
     private final Timer timer;
+    private final GameClock clock;
     private final PawnManager pawnManager;
     private final GeneralGoalManager generalGoalManager;
+    private final GoalDistanceFields goalDistanceFields;
+    private final Landmarks landmarks;
+    private final JumpIndex jumpIndex;
+    private final Bitboards bitboards;
+    private final Terrain terrain;
     private boolean isFirstPhase = true;
     private Runnable onGameWonCallback;
     private final PathFinder pathFinder;
+    private final PathCache pathCache = new PathCache(Config.PATH_CACHE_SIZE);
+    // changes whenever paths found before may no longer be the shortest ones
+    private final AtomicInteger version = new AtomicInteger();
+
 
+    // rows and columns of empty cells kept around the playing area, so the neighbours of every tile are on the board
+    public static final int BORDER = 1;
 
-    public Board(int maxSize) {
-        numRows = maxSize;
-        numCols = maxSize;
+    /**
+     * @param size rows and columns of the playing area, the board adds its empty border around it
+     */
+    public Board(int size, GameClock clock) {
+        numRows = size + 2 * BORDER;
+        numCols = size + 2 * BORDER;
         this.tiles = new Tile[numRows][numCols];
+        this.coordinates = new Coordinate[numRows * numCols];
+        for (int x = 0; x < numRows; x++) {
+            for (int y = 0; y < numCols; y++) {
+                coordinates[cellOf(x, y)] = new Coordinate(x, y);
+            }
+        }
+        this.jumpIndex = new JumpIndex(numRows, numCols);
+        this.bitboards = new Bitboards(this);
+        this.terrain = new Terrain(this);
         this.pawnManager = new PawnManager(this);
-        this.generalGoalManager = GeneralGoalManager.getInstance();
-        this.timer = new Timer();
+        this.generalGoalManager = new GeneralGoalManager();
+        this.goalDistanceFields = new GoalDistanceFields(this);
+        this.landmarks = new Landmarks(this, goalDistanceFields);
+        this.clock = clock;
+        this.timer = new Timer(clock);
         pathFinder = new PathFinder(tiles, this);
     }
 
@@ -53,14 +89,19 @@ public class Board {
 
             }
         }
+        bitboards.tilesAdded(new Coordinate(numRows / 2, numRows / 2), startingTiles.length);
+        terrain.tilesAdded(new Coordinate(numRows / 2, numRows / 2), startingTiles.length);
         // handle tile type specifics AFTER all tiles are placed
         for (int i = 0; i < startingTiles.length; i++) {
             for (int j = 0; j < startingTiles[i].length; j++) {
                 int x = (int) (i + (double) (numRows / 2));
                 int y = (int) (j + (double) (numRows / 2));
-                handleTileTypeSpecifics(startingTiles[i][j], new Coordinate(x, y));
+                handleTileTypeSpecifics(startingTiles[i][j], coordinateOf(cellOf(x, y)));
             }
         }
+        // distances of the goals found above may not include escalators that were registered after them
+        goalDistanceFields.tilesAdded(new Coordinate(numRows / 2, numRows / 2), startingTiles.length);
+        landmarks.cardAdded(new Coordinate(numRows / 2, numRows / 2), startingTiles.length);
         // printEscalators();
     }
 
@@ -69,15 +110,29 @@ public class Board {
             updateEscalator(tile, position);
         }
         switch (tile.getType()) {
-            case VORTEX -> addVortex(tile.getColor(), tile, position);
-            case TIMER -> generalGoalManager.addTimerToAllPawns(position);
-            case GOAL_ITEM -> generalGoalManager.getPawnGoalManager(tile.getColor()).setItem(position);
-            case GOAL_EXIT -> generalGoalManager.getPawnGoalManager(tile.getColor()).setExit(position);
+            case VORTEX -> {
+                addVortex(tile.getColor(), tile, position);
+                goalDistanceFields.addTarget(position);
+            }
+            case TIMER -> {
+                generalGoalManager.addTimerToAllPawns(position);
+                goalDistanceFields.addTarget(position);
+            }
+            case GOAL_ITEM -> {
+                generalGoalManager.getPawnGoalManager(tile.getColor()).setItem(position);
+                goalDistanceFields.addTarget(position);
+            }
+            case GOAL_EXIT -> {
+                generalGoalManager.getPawnGoalManager(tile.getColor()).setExit(position);
+                goalDistanceFields.addTarget(position);
+            }
             case DISCOVERY -> {
                 // only add discovery if it is not surrounded from all 4 sides
-                if (!(isTileAt(position.move(1, 0)) && isTileAt(position.move(-1, 0)) && isTileAt(position.move(0, 1)) && isTileAt(position.move(0, -1))))
+                int cell = cellOf(position);
+                if (!(isTileAt(cell + numCols) && isTileAt(cell - numCols) && isTileAt(cell + 1) && isTileAt(cell - 1)))
                  {
                     generalGoalManager.getPawnGoalManager(tile.getColor()).addDiscovery(position);
+                    goalDistanceFields.addTarget(position);
                  }
             }
             default -> {
@@ -86,14 +141,17 @@ public class Board {
     }
 
     private void checkForBlockedDiscoveries(Coordinate leftTopCorner){
-        List<Coordinate> possibleEntries = getFourPossibleAdjacentEntryTiles(leftTopCorner);
-        for (Coordinate entry : possibleEntries) {
+        int corner = cellOf(leftTopCorner);
+        for (int[] offset : ENTRY_OFFSETS) {
             // check if there is a discovery tile at this coordinate
-            Tile tile = getTileAt(new Coordinate(entry.x(), entry.y()));
+            int entryCell = corner + offset[0] * numCols + offset[1];
+            Tile tile = getTileAt(entryCell);
             if(tile != null && tile.getType() == TileType.DISCOVERY){
+                Coordinate entry = coordinateOf(entryCell);
                 // no need to check if it is now blocked from all 4 sides - if it exists, it is surrounded
                 // remove from generalGoalManager
                 generalGoalManager.getPawnGoalManager(tile.getColor()).removeDiscovery(entry);
+                goalDistanceFields.removeTarget(entry);
             }
         }
     }
@@ -107,20 +165,22 @@ public class Board {
             case ORANGE: vortexList = orangeVortices; break;
             default: return;
         }
-        vortexList.add(new BoardVortex(position, tile.getCardId(), tile.getColor()));
+        BoardVortex vortex = new BoardVortex(position, tile.getCardId(), tile.getColor());
+        vortexList.add(vortex);
+        jumpIndex.addVortex(vortex);
     }
 
     public void initializeStartingPawns(List<Pawn> initialPawns) {
         this.pawns = initialPawns;
-        // for each pawn, set their coordinate at occupied in the corresponding tile
+        // for each pawn, set their coordinate as occupied
         for (Pawn pawn : initialPawns) {
-            int x = pawn.getCoordinate().x();
-            int y = pawn.getCoordinate().y();
-            tiles[x][y].setOccupied(true);
+            pawnsByColor[pawn.getColor().ordinal()] = pawn;
+            bitboards.pawnPlaced(pawn.getColor(), pawn.getCoordinate());
         }
     }
 
-    public boolean addCardToBoard(Card newCard, Coordinate coordinate) {
+    // the pawns of all the players can discover at the same time, the cards are placed one at a time
+    public synchronized boolean addCardToBoard(Card newCard, Coordinate coordinate) {
         // remove the discovery tile from goals
 
         // calculate the newCard so that the START is in the bottom left corner of the coordinate
@@ -141,23 +201,24 @@ public class Board {
         }
 
         Card rotatedCard = newCard; // default no rotation
+        int cell = cellOf(coordinate);
 
         // no tile to the right
-        if(!isTileAt(coordinate.move(0, 1))) {
+        if(!isTileAt(cell + 1)) {
             // rotate newTiles 90 degrees clockwise
             rotatedCard = newCard.rotate90();
         }
         // no tile to the left
-        else if(!isTileAt(coordinate.move(0, -1))) {
+        else if(!isTileAt(cell - 1)) {
             // rotate newTiles 90 degrees counter-clockwise
             rotatedCard = newCard.rotate270();
         }
         // no tile above
-        else if(!isTileAt(coordinate.move(-1, 0))) {
+        else if(!isTileAt(cell - numCols)) {
             // do not rotate
         }
         // no tile below
-        else if(!isTileAt(coordinate.move(1, 0))) {
+        else if(!isTileAt(cell + numCols)) {
             // rotate newTiles 180 degrees
             rotatedCard = newCard.rotate180();
         }
@@ -170,17 +231,29 @@ public class Board {
 
         Coordinate corner = getLeftTopCornerOfNewCard(coordinate);
         Tile[][] rotatedTiles = rotatedCard.getTiles();
+        // no tiles on the border around the playing area
+        if(corner.x() < BORDER || corner.y() < BORDER || corner.x() + rotatedTiles.length > numRows - BORDER || corner.y() + rotatedTiles.length > numCols - BORDER) {
+            if(Config.PRINT_EVERYTHING) {
+                System.out.println("Error: Card at " + corner + " does not fit on the board of " + numRows + "x" + numCols + ".");
+            }
+            return false;
+        }
         // add the new tiles to the board at the correct coordinate
         for (int i = 0; i < rotatedTiles.length; i++) {
             System.arraycopy(rotatedTiles[i], 0, tiles[corner.x() + i], corner.y(), rotatedTiles[i].length);
         }
+        bitboards.tilesAdded(corner, rotatedTiles.length);
+        terrain.tilesAdded(corner, rotatedTiles.length);
         // run after adding all tiles
         for (int i = 0; i < rotatedTiles.length; i++) {
             for (int j = 0; j < rotatedTiles[i].length; j++) {
-                Coordinate c = new Coordinate(corner.x() + i, corner.y() + j);
+                Coordinate c = coordinateOf(cellOf(corner.x() + i, corner.y() + j));
                 handleTileTypeSpecifics(rotatedTiles[i][j], c);
             }
         }
+        goalDistanceFields.tilesAdded(corner, rotatedTiles.length);
+        landmarks.cardAdded(corner, rotatedTiles.length);
+        version.incrementAndGet();
 
         checkForBlockedDiscoveries(corner);
 
@@ -188,19 +261,10 @@ public class Board {
     }
 
     private void updateEscalator(Tile tile, Coordinate position){
-        // if escalators does not contain BoardEscalator where hasId equals startingTiles[i][j].getEscalator()
-        // if there is no escalator with the same id, add a new one
-        if(escalators.stream().noneMatch(e -> e.getId().equals(tile.getEscalator()))){
-            escalators.add(new BoardEscalator(position, tile.getEscalator()));
-        }
-        else{
-            // find BoardEscalator with the same id and add the new coordinate to it
-            for (BoardEscalator escalator : escalators) {
-                if (escalator.getId().equals(tile.getEscalator())) {
-                    escalator.setEnd(position);
-                    break;
-                }
-            }
+        // the first end of an escalator adds it, the second one is connected to it by the index
+        BoardEscalator newEscalator = jumpIndex.addEscalatorEnd(tile.getEscalator(), position);
+        if(newEscalator != null){
+            escalators.add(newEscalator);
         }
     }
 
@@ -208,6 +272,22 @@ public class Board {
         return tiles[position.x()][position.y()] != null;
     }
 
+    public boolean isTileAt(int cell) {
+        return bitboards.hasTile(cell);
+    }
+
+    public int cellOf(int x, int y) {
+        return x * numCols + y;
+    }
+
+    public int cellOf(Coordinate coordinate) {
+        return cellOf(coordinate.x(), coordinate.y());
+    }
+
+    public Coordinate coordinateOf(int cell) {
+        return coordinates[cell];
+    }
+
     public int getNumRows() {
         return numRows;
     }
@@ -221,12 +301,7 @@ public class Board {
     }
 
     public Pawn getPawnByColor(Color color) {
-        for (Pawn pawn : pawns) {
-            if (pawn.getColor() == color) {
-                return pawn;
-            }
-        }
-        return null;
+        return pawnsByColor[color.ordinal()];
     }
 
     public void printAllPawns(){
@@ -243,10 +318,22 @@ public class Board {
         }
     }
 
+    public Tile getTileAt(int cell) {
+        return tiles[cell / numCols][cell % numCols];
+    }
+
     public Pawn getPawnAt(Coordinate coordinate){
         if(coordinate == null){ return null; }
+        return getPawnAt(cellOf(coordinate));
+    }
+
+    // -1 for no cell
+    public Pawn getPawnAt(int cell){
+        if(cell == -1 || !bitboards.isOccupied(cell)){
+            return null;
+        }
         for (Pawn pawn : pawns){
-            if(pawn.getCoordinate().equals(coordinate)){
+            if(bitboards.isPawnAt(pawn.getColor(), cell)){
                 return pawn;
             }
         }
@@ -256,21 +343,22 @@ public class Board {
     public Coordinate getLeftTopCornerOfNewCard(Coordinate position) {
         int startX = position.x();
         int startY = position.y();
+        int cell = cellOf(position);
 
         // no tile to the right
-        if(!isTileAt(position.move(0, 1))){
+        if(!isTileAt(cell + 1)){
             return new Coordinate(startX-1, startY+1);
         }
         // no tile to the left
-        else if(!isTileAt(position.move(0, -1))){
+        else if(!isTileAt(cell - 1)){
             return new Coordinate(startX-2, startY-4);
         }
         // no tile above
-        else if(!isTileAt(position.move(-1, 0))){
+        else if(!isTileAt(cell - numCols)){
             return new Coordinate(startX-4, startY-1);
         }
         // no tile below
-        else if(!isTileAt(position.move(1, 0))){
+        else if(!isTileAt(cell + numCols)){
             return new Coordinate(startX+1, startY-2);
         }
         return null; // should not reach here
@@ -278,10 +366,9 @@ public class Board {
 
     public List<Coordinate> getFourPossibleAdjacentEntryTiles(Coordinate leftTopCorner){
         List<Coordinate> possibleEntries = new java.util.ArrayList<>();
-        possibleEntries.add(new Coordinate(leftTopCorner.x()+1, leftTopCorner.y()-1)); // left
-        possibleEntries.add(new Coordinate(leftTopCorner.x()+2, leftTopCorner.y()+4)); // right
-        possibleEntries.add(new Coordinate(leftTopCorner.x()-1, leftTopCorner.y()+2)); // top
-        possibleEntries.add(new Coordinate(leftTopCorner.x()+4, leftTopCorner.y()+1)); // bottom
+        for (int[] offset : ENTRY_OFFSETS) {
+            possibleEntries.add(coordinateOf(cellOf(leftTopCorner.x() + offset[0], leftTopCorner.y() + offset[1])));
+        }
         return possibleEntries;
     }
 
@@ -293,6 +380,10 @@ public class Board {
         return timer;
     }
 
+    public GameClock getClock() {
+        return clock;
+    }
+
     public boolean isPawnAtTimerTile(Pawn pawn){
         Tile tile = tiles[pawn.getCoordinate().x()][pawn.getCoordinate().y()];
         return tile.getType() == TileType.TIMER;
@@ -315,17 +406,11 @@ public class Board {
     }
 
     public int getCardIdOfVortex(Coordinate coordinate, Color color){
-        List<BoardVortex> vortexList = getVortexListByColor(color);
-        for (BoardVortex vortex : vortexList) {
-            if (vortex.coordinate().equals(coordinate)) {
-                return vortex.cardId();
-            }
-        }
-
-        if(Config.PRINT_EVERYTHING) {
+        int cardId = jumpIndex.getVortexCardId(color, coordinate.x() * numCols + coordinate.y());
+        if(cardId == -1 && Config.PRINT_EVERYTHING) {
             System.out.println("Error: Vortex not found at coordinate " + coordinate + " for color " + color);
         }
-        return -1; // not found
+        return cardId;
     }
 
     public Pawn useVortex(Color pawnColor, int vortexNumber){
@@ -366,12 +451,45 @@ public class Board {
 
     public void removeTimerFromGoals(Coordinate timer) {
         generalGoalManager.removeTimerFromAllPawns(timer);
+        goalDistanceFields.removeTarget(timer);
     }
 
     public PawnManager getPawnManager() {
         return pawnManager;
     }
 
+    public GeneralGoalManager getGeneralGoalManager() {
+        return generalGoalManager;
+    }
+
+    public GoalDistanceFields getGoalDistanceFields() {
+        return goalDistanceFields;
+    }
+
+    public Landmarks getLandmarks() {
+        return landmarks;
+    }
+
+    public Bitboards getBitboards() {
+        return bitboards;
+    }
+
+    public Terrain getTerrain() {
+        return terrain;
+    }
+
+    public JumpIndex getJumpIndex() {
+        return jumpIndex;
+    }
+
+    public PathCache getPathCache() {
+        return pathCache;
+    }
+
+    public int getVersion() {
+        return version.get();
+    }
+
     public void setTimerFinishCallback(Runnable callback) {
         timer.setOnTimerFinishCallback(callback);
     }
@@ -386,6 +504,7 @@ public class Board {
 
     public void beginSecondPhase(){
         isFirstPhase = false;
+        version.incrementAndGet();
         // notify all AI agents and re-calculate their paths
         pawnManager.firstPhaseCompleted();
     }
@@ -417,29 +536,34 @@ public class Board {
 
     public Coordinate getClosestVortex(Coordinate coordinate, Color color, int heuristicType){
         List<BoardVortex> vortexList = getVortexListByColor(color);
-        double smallestDistance = Double.POSITIVE_INFINITY;
+        // every vortex has a field, so compare the walking distances
+        int smallestDistance = GoalDistanceFields.UNREACHABLE;
         Coordinate closestCoordinate = null;
         for(BoardVortex vortex : vortexList){
-            int distance = pathFinder.findDistance(coordinate, vortex.coordinate(), heuristicType);
+            int distance = goalDistanceFields.getDistance(coordinate, vortex.coordinate());
             if(distance < smallestDistance){
                 smallestDistance = distance;
                 closestCoordinate = vortex.coordinate();
             }
         }
+        if(closestCoordinate != null){
+            return closestCoordinate;
+        }
+        // no vortex can be walked to, compare the estimates of all of them instead
+        smallestDistance = Integer.MAX_VALUE;
+        for(BoardVortex vortex : vortexList){
+            int distance = pathFinder.findDistance(coordinate, vortex.coordinate(), heuristicType);
+            if(closestCoordinate == null || distance < smallestDistance){
+                smallestDistance = distance;
+                closestCoordinate = vortex.coordinate();
+            }
+        }
         return closestCoordinate;
     }
 
     public Coordinate getVortexCoordinateById(int vortexNumber, Color pawnColor){
-        List<BoardVortex> vortexList = getVortexListByColor(pawnColor);
-        Coordinate destination = null;
-
-        // find the vortex with the given cardId
-        for (BoardVortex vortex : vortexList) {
-            if (vortex.cardId() == vortexNumber) {
-                destination = vortex.coordinate();
-            }
-        }
-        return destination;
+        int cell = jumpIndex.getVortexCell(pawnColor, vortexNumber);
+        return cell == -1 ? null : coordinateOf(cell);
     }
 
     public boolean areAllGoalsDiscovered(){
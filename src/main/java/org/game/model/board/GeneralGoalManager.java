@@ -5,12 +5,11 @@ import org.game.model.Coordinate;
 
 import java.util.List;
 
-// singleton
+// goals of all pawns in one game, owned by the board
 public class GeneralGoalManager {
-    private static GeneralGoalManager instance; // singleton
     List<PawnGoalManager> pawnGoalManagers;
 
-    private GeneralGoalManager() {
+    public GeneralGoalManager() {
         this.pawnGoalManagers = List.of(
             new PawnGoalManager(Color.ORANGE),
             new PawnGoalManager(Color.GREEN),
@@ -19,19 +18,6 @@ public class GeneralGoalManager {
         );
     }
 
-    public static GeneralGoalManager getInstance() {
-        if (instance == null) {
-            synchronized (GeneralGoalManager.class) {
-                instance = new GeneralGoalManager();
-            }
-        }
-        return instance;
-    }
-
-    public void reset() {
-        instance = new GeneralGoalManager();
-    }
-
     public PawnGoalManager getPawnGoalManager(Color color) {
         for (PawnGoalManager pgm : pawnGoalManagers) {
             if (pgm.pawnColor == color) {
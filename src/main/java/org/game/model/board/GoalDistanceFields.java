@@ -0,0 +1,154 @@
+package org.game.model.board;
+
+import org.game.model.Coordinate;
+import org.game.model.AI.PackedIntHeap;
+import org.game.model.AI.PathFinder;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Exact walking distances (moves and escalators) from every cell of the board to each target: the goals of the
+ * pawns and the vortices. A field is computed once by a BFS from its target and repaired when a card is placed,
+ * since placing tiles only ever shortens distances. Vortex jumps depend on the pawn and the phase, so they are
+ * added by the reader.
+ * Fields are published as snapshots that are never modified afterwards, readers do not need to lock.
+ */
+public class GoalDistanceFields {
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+    private static final PathFinder.Action[] MOVES = {PathFinder.Action.MOVE_NORTH, PathFinder.Action.MOVE_SOUTH, PathFinder.Action.MOVE_WEST, PathFinder.Action.MOVE_EAST};
+
+    private final Board board;
+    private final int cols;
+    private final int cellBits;
+    private final Map<Integer, int[]> fields = new ConcurrentHashMap<>();
+    // the same cell can be a goal several times (e.g. a timer for all pawns)
+    private final Map<Integer, Integer> targetCounts = new HashMap<>();
+    private final PackedIntHeap queue;
+    private final int[] neighbours = new int[MOVES.length + 1];
+
+    public GoalDistanceFields(Board board) {
+        this.board = board;
+        this.cols = board.getNumCols();
+        int cells = board.getNumRows() * cols;
+        this.cellBits = 32 - Integer.numberOfLeadingZeros(cells - 1);
+        this.queue = new PackedIntHeap(cells);
+    }
+
+    // returns the distances from all cells to the target, indexed by x * cols + y, or null if it is not a target
+    public int[] getField(Coordinate target) {
+        return fields.get(cellOf(target.x(), target.y()));
+    }
+
+    // returns the walking distance, or UNREACHABLE if there is no field for the target or no way to it
+    public int getDistance(Coordinate from, Coordinate target) {
+        int[] field = getField(target);
+        if (field == null) {
+            return UNREACHABLE;
+        }
+        return field[cellOf(from.x(), from.y())];
+    }
+
+    public synchronized void addTarget(Coordinate target) {
+        int cell = cellOf(target.x(), target.y());
+        if (targetCounts.merge(cell, 1, Integer::sum) > 1) {
+            return;
+        }
+        int[] field = new int[board.getNumRows() * cols];
+        Arrays.fill(field, UNREACHABLE);
+        field[cell] = 0;
+        queue.clear();
+        queue.push(cell);
+        propagate(field);
+        fields.put(cell, field);
+    }
+
+    public synchronized void removeTarget(Coordinate target) {
+        int cell = cellOf(target.x(), target.y());
+        Integer count = targetCounts.get(cell);
+        if (count == null) {
+            return;
+        }
+        if (count > 1) {
+            targetCounts.put(cell, count - 1);
+        }
+        else {
+            targetCounts.remove(cell);
+            fields.remove(cell);
+        }
+    }
+
+    // repair all fields after the tiles of a card (and their escalators) have been added
+    public synchronized void tilesAdded(Coordinate leftTopCorner, int size) {
+        for (Map.Entry<Integer, int[]> entry : fields.entrySet()) {
+            int[] field = entry.getValue().clone();
+            queue.clear();
+            // every new edge touches a new cell, so its cells and their neighbours are where distances can shrink
+            for (int x = leftTopCorner.x(); x < leftTopCorner.x() + size; x++) {
+                for (int y = leftTopCorner.y(); y < leftTopCorner.y() + size; y++) {
+                    int cell = cellOf(x, y);
+                    seed(field, cell);
+                    int count = neighboursOf(cell);
+                    for (int i = 0; i < count; i++) {
+                        seed(field, neighbours[i]);
+                    }
+                }
+            }
+            propagate(field);
+            fields.put(entry.getKey(), field);
+        }
+    }
+
+    private void seed(int[] field, int cell) {
+        if (field[cell] != UNREACHABLE) {
+            queue.push((field[cell] << cellBits) | cell);
+        }
+    }
+
+    // Dijkstra on unit weights that only ever lowers distances, stale queue entries are skipped
+    private void propagate(int[] field) {
+        int cellMask = (1 << cellBits) - 1;
+        while (!queue.isEmpty()) {
+            int entry = queue.pop();
+            int cell = entry & cellMask;
+            int distance = entry >>> cellBits;
+            if (distance > field[cell]) {
+                continue;
+            }
+            int count = neighboursOf(cell);
+            for (int i = 0; i < count; i++) {
+                int neighbour = neighbours[i];
+                if (distance + 1 < field[neighbour]) {
+                    field[neighbour] = distance + 1;
+                    queue.push(((distance + 1) << cellBits) | neighbour);
+                }
+            }
+        }
+    }
+
+    // all moves and escalators are usable in both directions, so the neighbours are the same for a reverse search
+    private int neighboursOf(int cell) {
+        Terrain terrain = board.getTerrain();
+        if (!terrain.hasTile(cell)) {
+            return 0;
+        }
+        int count = 0;
+        for (PathFinder.Action move : MOVES) {
+            int neighbour = terrain.step(cell, move);
+            if (neighbour != -1) {
+                neighbours[count++] = neighbour;
+            }
+        }
+        int otherSide = board.getJumpIndex().getOtherSideOfEscalator(cell);
+        if (otherSide != -1) {
+            neighbours[count++] = otherSide;
+        }
+        return count;
+    }
+
+    private int cellOf(int x, int y) {
+        return x * cols + y;
+    }
+}
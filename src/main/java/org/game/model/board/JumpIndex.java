@@ -0,0 +1,89 @@
+package org.game.model.board;
+
+import org.game.model.Color;
+import org.game.model.Coordinate;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The cells pawns can jump between, indexed by cell (x * cols + y) as the cards are placed: the other end of every
+ * escalator, and the vortex of each colour on each card with the way back from the cell to the card.
+ * Written while a card is placed, which the board does for one card at a time (Board.addCardToBoard is synchronized).
+ * The threads of the players and their path finders read it without locking: every entry is a single int that is
+ * written once, so a reader sees it either before or after the card that sets it, and the vortex cells of a colour
+ * are replaced by a new, filled array. The entries of a card are written before the board version changes, so a
+ * reader that has seen the new version sees all of them.
+ */
+public class JumpIndex {
+    private final int cols;
+    // other end of the escalator on each cell, -1 if there is none (yet)
+    private final int[] escalatorPartner;
+    // escalators with only one end placed so far
+    private final Map<String, BoardEscalator> openEscalators = new HashMap<>();
+    // cell of the vortex of each colour on each card, indexed by colour ordinal and card id, -1 if there is none
+    private volatile int[][] vortexCells = new int[Color.values().length][0];
+    // card id * number of colours + colour ordinal of the vortex on each cell, -1 if there is none
+    private final int[] vortexOfCell;
+
+    public JumpIndex(int rows, int cols) {
+        this.cols = cols;
+        this.escalatorPartner = new int[rows * cols];
+        this.vortexOfCell = new int[rows * cols];
+        Arrays.fill(escalatorPartner, -1);
+        Arrays.fill(vortexOfCell, -1);
+    }
+
+    // the escalator if this is its first end, null if it connects the other end placed before
+    public BoardEscalator addEscalatorEnd(String id, Coordinate position) {
+        BoardEscalator escalator = openEscalators.remove(id);
+        if (escalator == null) {
+            escalator = new BoardEscalator(position, id);
+            openEscalators.put(id, escalator);
+            return escalator;
+        }
+        escalator.setEnd(position);
+        int start = cellOf(escalator.getStart());
+        int end = cellOf(position);
+        escalatorPartner[start] = end;
+        escalatorPartner[end] = start;
+        return null;
+    }
+
+    public int getOtherSideOfEscalator(int cell) {
+        return escalatorPartner[cell];
+    }
+
+    public void addVortex(BoardVortex vortex) {
+        int color = vortex.color().ordinal();
+        int cell = cellOf(vortex.coordinate());
+        // readers may hold the current arrays, the new cells are published with new ones
+        int[][] newVortexCells = vortexCells.clone();
+        int oldLength = newVortexCells[color].length;
+        newVortexCells[color] = Arrays.copyOf(newVortexCells[color], Math.max(oldLength, vortex.cardId() + 1));
+        Arrays.fill(newVortexCells[color], oldLength, newVortexCells[color].length, -1);
+        newVortexCells[color][vortex.cardId()] = cell;
+        vortexOfCell[cell] = vortex.cardId() * Color.values().length + color;
+        vortexCells = newVortexCells;
+    }
+
+    // cell of the vortex of the colour on the card, -1 if there is none
+    public int getVortexCell(Color color, int cardId) {
+        int[] cells = vortexCells[color.ordinal()];
+        return cardId >= 0 && cardId < cells.length ? cells[cardId] : -1;
+    }
+
+    // card of the vortex of the colour on the cell, -1 if there is none
+    public int getVortexCardId(Color color, int cell) {
+        int vortex = vortexOfCell[cell];
+        if (vortex == -1 || vortex % Color.values().length != color.ordinal()) {
+            return -1;
+        }
+        return vortex / Color.values().length;
+    }
+
+    private int cellOf(Coordinate coordinate) {
+        return coordinate.x() * cols + coordinate.y();
+    }
+}
@@ -0,0 +1,134 @@
+package org.game.model.board;
+
+import org.game.model.Coordinate;
+import org.game.utils.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Landmark cells with exact distances to every cell, for a lower bound on the distance between any two cells
+ * (ALT): by the triangle inequality, d(a, b) >= |d(L, a) - d(L, b)| for every landmark L.
+ * Each placed card can add one landmark, the cell of the card farthest from the existing ones, or move the most
+ * redundant one there once there are enough. The distance tables are fields of the goal distance fields, so they are
+ * repaired with them when the board grows.
+ * Only heuristicType 2 reads the bounds, so the landmarks are placed on the first query: until then the placed cards
+ * are only remembered and no field is kept for them.
+ */
+public class Landmarks {
+    private final Board board;
+    private final GoalDistanceFields goalDistanceFields;
+    private final List<Coordinate> landmarks = new ArrayList<>();
+    // the cards placed before the first query, null once the landmarks are placed
+    private List<PlacedCard> placedCards = new ArrayList<>();
+    // snapshot of the tables for readers, replaced whenever a table changes, null until the first query
+    private volatile int[][] tables;
+
+    private record PlacedCard(Coordinate leftTopCorner, int size) {
+    }
+
+    public Landmarks(Board board, GoalDistanceFields goalDistanceFields) {
+        this.board = board;
+        this.goalDistanceFields = goalDistanceFields;
+    }
+
+    // has to run after the distance fields have been repaired for the new card
+    public synchronized void cardAdded(Coordinate leftTopCorner, int size) {
+        if (placedCards != null) {
+            placedCards.add(new PlacedCard(leftTopCorner, size));
+            return;
+        }
+        placeLandmark(leftTopCorner, size);
+        publishTables();
+    }
+
+    // places the landmarks for all cards placed so far
+    private synchronized int[][] build() {
+        if (placedCards != null) {
+            for (PlacedCard card : placedCards) {
+                placeLandmark(card.leftTopCorner(), card.size());
+            }
+            placedCards = null;
+            publishTables();
+        }
+        return tables;
+    }
+
+    private void placeLandmark(Coordinate leftTopCorner, int size) {
+        Coordinate farthest = null;
+        long farthestDistance = -1;
+        for (int x = leftTopCorner.x(); x < leftTopCorner.x() + size; x++) {
+            for (int y = leftTopCorner.y(); y < leftTopCorner.y() + size; y++) {
+                Coordinate cell = board.coordinateOf(board.cellOf(x, y));
+                if (!board.isTileAt(cell)) {
+                    continue;
+                }
+                long distance = distanceToLandmarks(cell, null);
+                if (distance > farthestDistance) {
+                    farthestDistance = distance;
+                    farthest = cell;
+                }
+            }
+        }
+        if (farthest != null) {
+            if (landmarks.size() < Config.LANDMARK_COUNT) {
+                landmarks.add(farthest);
+                goalDistanceFields.addTarget(farthest);
+            }
+            else {
+                // the board grows outwards, so move the landmark that is closest to another one to the new card
+                // if that spreads the landmarks further apart
+                Coordinate mostRedundant = null;
+                long smallestSpread = Long.MAX_VALUE;
+                for (Coordinate landmark : landmarks) {
+                    long spread = distanceToLandmarks(landmark, landmark);
+                    if (spread < smallestSpread) {
+                        smallestSpread = spread;
+                        mostRedundant = landmark;
+                    }
+                }
+                if (farthestDistance > smallestSpread) {
+                    landmarks.set(landmarks.indexOf(mostRedundant), farthest);
+                    goalDistanceFields.removeTarget(mostRedundant);
+                    goalDistanceFields.addTarget(farthest);
+                }
+            }
+        }
+    }
+
+    private void publishTables() {
+        int[][] newTables = new int[landmarks.size()][];
+        for (int i = 0; i < landmarks.size(); i++) {
+            newTables[i] = goalDistanceFields.getField(landmarks.get(i));
+        }
+        tables = newTables;
+    }
+
+    // distance to the closest landmark other than the excluded one, cells no landmark can reach count as the farthest
+    private long distanceToLandmarks(Coordinate cell, Coordinate excluded) {
+        long closest = Long.MAX_VALUE;
+        for (Coordinate landmark : landmarks) {
+            if (landmark != excluded) {
+                closest = Math.min(closest, goalDistanceFields.getDistance(cell, landmark));
+            }
+        }
+        return closest;
+    }
+
+    // lower bound on the number of steps between two cells (indexed by x * cols + y), 0 if nothing is known
+    public int lowerBound(int cellA, int cellB) {
+        int[][] current = tables;
+        if (current == null) {
+            current = build();
+        }
+        int bound = 0;
+        for (int[] table : current) {
+            int distanceA = table[cellA];
+            int distanceB = table[cellB];
+            if (distanceA != GoalDistanceFields.UNREACHABLE && distanceB != GoalDistanceFields.UNREACHABLE) {
+                bound = Math.max(bound, Math.abs(distanceA - distanceB));
+            }
+        }
+        return bound;
+    }
+}
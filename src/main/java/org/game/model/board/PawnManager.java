@@ -1,6 +1,7 @@
 package org.game.model.board;
 
 import org.game.model.*;
+import org.game.model.AI.PathFinder;
 import org.game.model.AI.StateChangeListener;
 import org.game.utils.Config;
 
@@ -8,49 +9,46 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class PawnManager {
-    private static Board board;
+    private final Board board;
     private final List<StateChangeListener> listeners = new ArrayList<>();
 
     public PawnManager(Board board) {
-        PawnManager.board = board;
+        this.board = board;
     }
 
     public void addStateChangeListener(StateChangeListener listener) {
         listeners.add(listener);
     }
 
-    public Pawn useVortex(Color pawnColor, int vortexNumber){
+    // the moves come from the threads of all the players: checking the destination and updating the pawn masks of the
+    // bitboards (whole words shared with the neighbouring cells) has to happen for one move at a time
+    public synchronized Pawn useVortex(Color pawnColor, int vortexNumber){
         Pawn pawn = board.getPawnByColor(pawnColor);
-        List<BoardVortex> vortexList = board.getVortexListByColor(pawnColor);
 
         // find the vortex with the given cardId
-        for (BoardVortex vortex : vortexList) {
-            if (vortex.cardId() == vortexNumber) {
-                Coordinate destination = vortex.coordinate();
-                // check if the destination is occupied
-                Tile destinationTile = board.getTileAt(destination);
-                if(destinationTile.isOccupied()){
-                    if(Config.PRINT_EVERYTHING) {
-                        System.out.println("Error: Vortex destination is occupied");
-                    }
-                    return pawn;
-                }
-                if(Config.PRINT_EVERYTHING) {
-                    System.out.println("Pawn " + pawnColor + " used vortex " + vortexNumber + " to (" + destination.x() + "," + destination.y() + ")");
-                }
-
-                // set previous tile not occupied, move pawn to destination, set new tile to occupied
-                board.getTileAt(pawn.getCoordinate()).setOccupied(false);
-                pawn.moveTo(destination);
-                board.getTileAt(pawn.getCoordinate()).setOccupied(true);
-
-                return pawn;
+        int vortexCell = board.getJumpIndex().getVortexCell(pawnColor, vortexNumber);
+        if (vortexCell == -1) {
+            return pawn;
+        }
+        Coordinate destination = board.coordinateOf(vortexCell);
+        // check if the destination is occupied
+        if(board.getBitboards().isOccupied(vortexCell)){
+            if(Config.PRINT_EVERYTHING) {
+                System.out.println("Error: Vortex destination is occupied");
             }
+            return pawn;
+        }
+        if(Config.PRINT_EVERYTHING) {
+            System.out.println("Pawn " + pawnColor + " used vortex " + vortexNumber + " to (" + destination.x() + "," + destination.y() + ")");
         }
+
+        // set previous tile not occupied, move pawn to destination, set new tile to occupied
+        board.getBitboards().pawnMoved(pawnColor, pawn.getCoordinate(), destination);
+        pawn.moveTo(destination);
         return pawn;
     }
 
-    public Pawn useEscalator(Color pawnColor){
+    public synchronized Pawn useEscalator(Color pawnColor){
         Pawn pawn = board.getPawnByColor(pawnColor);
 
         Coordinate destination = getOtherSideOfEscalator(pawn.getCoordinate());
@@ -60,7 +58,7 @@ public class PawnManager {
             }
             return pawn;
         }
-        if(board.getTileAt(destination).isOccupied()){
+        if(board.getBitboards().isOccupied(board.cellOf(destination))){
             if(Config.PRINT_EVERYTHING) {
                 System.out.println("Error: Escalator destination is occupied");
             }
@@ -72,159 +70,65 @@ public class PawnManager {
             }
 
             // set previous tile not occupied, move pawn to destination, set new tile to occupied
-            board.getTileAt(pawn.getCoordinate()).setOccupied(false);
+            board.getBitboards().pawnMoved(pawnColor, pawn.getCoordinate(), destination);
             pawn.moveTo(destination);
-            board.getTileAt(pawn.getCoordinate()).setOccupied(true);
         }
         return pawn;
     }
 
-    public static Coordinate getOtherSideOfEscalator(Coordinate currentCoordinate){
-        Tile currentTile = board.getTileAt(new Coordinate(currentCoordinate.x(), currentCoordinate.y()));
-
-        // find the currentTile in escalators
-        for (BoardEscalator escalator : board.getEscalators()) {
-            if (escalator.getId().equals(currentTile.getEscalator())) {
-                // the currentTile is either start or end
-                Coordinate end = escalator.getEnd();
-                Coordinate start = escalator.getStart();
-
-                if(currentCoordinate.equals(start)){
-                    // move to end
-                    return escalator.getEnd();
-                }
-                else if(currentCoordinate.equals(end)){
-                    // move to start
-                    return escalator.getStart();
-                }
-                else{
-                    if(Config.PRINT_EVERYTHING) {
-                        System.out.println("Error: Coordinate is not an escalator tile");
-                    }
-                    return null;
-                }
-            }
-        }
-        // should not get here
-        return null;
+    public Coordinate getOtherSideOfEscalator(Coordinate currentCoordinate){
+        int otherSide = board.getJumpIndex().getOtherSideOfEscalator(board.cellOf(currentCoordinate));
+        return otherSide == -1 ? null : board.coordinateOf(otherSide);
     }
 
-    public Pawn movePawn(Color pawnColor, Action action) {
+    public synchronized Pawn movePawn(Color pawnColor, Action action) {
         Pawn pawn = board.getPawnByColor(pawnColor);
-        Tile currentTile = board.getTileAt(pawn.getCoordinate());
-        boolean moved = false;
-
-        switch (action.getType()) {
-            case MOVE_NORTH:
-                if (!currentTile.hasWallUp() && board.getTileAt(pawn.getCoordinate().move(-1, 0)) != null && !board.getTileAt(pawn.getCoordinate().move(-1, 0)).isOccupied()) {
-                    pawn.moveNorth();
-                    if(Config.PRINT_EVERYTHING) {
-                        System.out.println("Moved " + pawnColor + " north");
-                    }
-                    moved = true;
-                }
-                else{
-                    if(Config.PRINT_EVERYTHING) {
-                        if (currentTile.hasWallUp()) {
-                            System.out.println("Cannot move north: Wall is blocking the way.");
-                        } else if (board.getTileAt(pawn.getCoordinate().move(-1, 0)) == null) {
-                            System.out.println("Cannot move north: No tile in that direction.");
-                        } else if (board.getTileAt(pawn.getCoordinate().move(-1, 0)).isOccupied()) {
-                            System.out.println("Cannot move north: Tile is occupied by another pawn.");
-                        }
-                    }
-                }
-                break;
-            case MOVE_SOUTH:
-                if( !currentTile.hasWallDown() && board.getTileAt(pawn.getCoordinate().move(1, 0)) != null && !board.getTileAt(pawn.getCoordinate().move(1, 0)).isOccupied()) {
-                    pawn.moveSouth();
-                    if(Config.PRINT_EVERYTHING) {
-                        System.out.println("Moved " + pawnColor + " south");
-                    }
-                    moved = true;
-                }
-                else{
-                    if(Config.PRINT_EVERYTHING) {
-                        if (currentTile.hasWallDown()) {
-                            System.out.println("Cannot move south: Wall is blocking the way.");
-                        } else if (board.getTileAt(pawn.getCoordinate().move(1, 0)) == null) {
-                            System.out.println("Cannot move south: No tile in that direction.");
-                        } else if (board.getTileAt(pawn.getCoordinate().move(1, 0)).isOccupied()) {
-                            System.out.println("Cannot move south: Tile is occupied by another pawn.");
-                        }
-                    }
-                }
-                break;
-            case MOVE_WEST:
-                if (!currentTile.hasWallLeft() && board.getTileAt(pawn.getCoordinate().move(0, -1)) != null && !board.getTileAt(pawn.getCoordinate().move(0, -1)).isOccupied()) {
-                    pawn.moveWest();
-                    if(Config.PRINT_EVERYTHING) {
-                        System.out.println("Moved " + pawnColor + " west");
-                    }
-                    moved = true;
-                }
-                else{
-                    if(Config.PRINT_EVERYTHING) {
-                        if (currentTile.hasWallLeft()) {
-                            System.out.println("Cannot move west: Wall is blocking the way.");
-                        } else if (board.getTileAt(pawn.getCoordinate().move(0, -1)) == null) {
-                            System.out.println("Cannot move west: No tile in that direction.");
-                        } else if (board.getTileAt(pawn.getCoordinate().move(0, -1)).isOccupied()) {
-                            System.out.println("Cannot move west: Tile is occupied by another pawn.");
-                        }
-                    }
-                }
-                break;
-            case MOVE_EAST:
-                if( !currentTile.hasWallRight() && board.getTileAt(pawn.getCoordinate().move(0, 1)) != null && !board.getTileAt(pawn.getCoordinate().move(0, 1)).isOccupied()) {
-                    pawn.moveEast();
-                    if(Config.PRINT_EVERYTHING) {
-                        System.out.println("Moved " + pawnColor + " east");
-                    }
-                    moved = true;
-                }
-                else{
-                    if(Config.PRINT_EVERYTHING) {
-                        if (currentTile.hasWallRight()) {
-                            System.out.println("Cannot move east: Wall is blocking the way.");
-                        } else if (board.getTileAt(pawn.getCoordinate().move(0, 1)) == null) {
-                            System.out.println("Cannot move east: No tile in that direction.");
-                        } else if (board.getTileAt(pawn.getCoordinate().move(0, 1)).isOccupied()) {
-                            System.out.println("Cannot move east: Tile is occupied by another pawn.");
-                        }
-                    }
-                }
-            break;
+        PathFinder.Action move = switch (action.getType()) {
+            case MOVE_NORTH -> PathFinder.Action.MOVE_NORTH;
+            case MOVE_SOUTH -> PathFinder.Action.MOVE_SOUTH;
+            case MOVE_WEST -> PathFinder.Action.MOVE_WEST;
+            case MOVE_EAST -> PathFinder.Action.MOVE_EAST;
+            default -> null;
+        };
+        if (move == null) {
+            return pawn;
         }
-
-        //update occupied
-        if(moved){
-            // set the previous tile to not occupied
-            switch (action.getType()) {
-                case MOVE_NORTH:
-                    board.getTileAt(pawn.getCoordinate().move(1, 0)).setOccupied(false);
-                    break;
-                case MOVE_SOUTH:
-                    board.getTileAt(pawn.getCoordinate().move(-1, 0)).setOccupied(false);
-                    break;
-                case MOVE_WEST:
-                    board.getTileAt(pawn.getCoordinate().move(0, 1)).setOccupied(false);
-                    break;
-                case MOVE_EAST:
-                    board.getTileAt(pawn.getCoordinate().move(0, -1)).setOccupied(false);
-                    break;
+        Bitboards bitboards = board.getBitboards();
+        int cell = board.cellOf(pawn.getCoordinate());
+        // -1 off the board, canStep is then false
+        int target = bitboards.neighbourOf(cell, move);
+        String direction = action.getType().name().substring("MOVE_".length()).toLowerCase();
+        boolean moved = bitboards.canStep(cell, move);
+
+        if (moved) {
+            Coordinate destination = board.coordinateOf(target);
+            // set previous tile not occupied, move pawn to destination, set new tile to occupied
+            bitboards.pawnMoved(pawnColor, pawn.getCoordinate(), destination);
+            pawn.moveTo(destination);
+            if(Config.PRINT_EVERYTHING) {
+                System.out.println("Moved " + pawnColor + " " + direction);
+            }
+        }
+        else{
+            if(Config.PRINT_EVERYTHING) {
+                if (bitboards.hasWall(cell, move)) {
+                    System.out.println("Cannot move " + direction + ": Wall is blocking the way.");
+                } else if (target == -1 || !bitboards.hasTile(target)) {
+                    System.out.println("Cannot move " + direction + ": No tile in that direction.");
+                } else if (bitboards.isOccupied(target)) {
+                    System.out.println("Cannot move " + direction + ": Tile is occupied by another pawn.");
+                }
             }
-            board.getTileAt(pawn.getCoordinate()).setOccupied(true);
         }
 
         // check if the pawn has moved onto a Timer tile
-        Tile newTile = board.getTileAt(pawn.getCoordinate());
-        if(moved && newTile.getType() == TileType.TIMER && !newTile.isUsed()){
+        int newCell = board.cellOf(pawn.getCoordinate());
+        if(moved && board.getTerrain().getType(newCell) == TileType.TIMER && !bitboards.isTimerUsed(newCell)){
             if(Config.PRINT_EVERYTHING){
                 System.out.println("Pawn " + pawnColor + " landed on a Timer tile!");
             }
             board.getTimer().flipTimer();
-            newTile.setUsed(true);
+            bitboards.timerUsed(newCell);
             // remove timer from board's active timers
             board.removeTimerFromGoals(pawn.getCoordinate());
         }
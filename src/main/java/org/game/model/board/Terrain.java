@@ -0,0 +1,117 @@
+package org.game.model.board;
+
+import org.game.model.Color;
+import org.game.model.Coordinate;
+import org.game.model.Tile;
+import org.game.model.TileType;
+import org.game.model.AI.PathFinder;
+
+import java.util.Arrays;
+
+/**
+ * The terrain of the placed tiles as one byte per cell for each property (indexed by x * cols + y): the type, the
+ * colour, the walls and the card. Reading a cell is one load from a small array instead of following a tile, and
+ * scans over the cells read memory in order.
+ * Terrain never changes once a card is placed. What changes during a game (pawns, used timers) is in the bitboards,
+ * so the tiles of the cards can be shared.
+ */
+public class Terrain {
+    private static final byte NO_TILE = -1;
+    private static final TileType[] TYPES = TileType.values();
+    private static final Color[] COLORS = Color.values();
+
+    private final Board board;
+    private final int rows;
+    private final int cols;
+    // ordinal of the type of each cell, NO_TILE if there is no tile
+    private final byte[] types;
+    private final byte[] colors;
+    // one bit per side with a wall, the bit of a side is 1 << the ordinal of the move through it
+    private final byte[] walls;
+    private final short[] cardIds;
+
+    public Terrain(Board board) {
+        this.board = board;
+        this.rows = board.getNumRows();
+        this.cols = board.getNumCols();
+        this.types = new byte[rows * cols];
+        this.colors = new byte[rows * cols];
+        this.walls = new byte[rows * cols];
+        this.cardIds = new short[rows * cols];
+        Arrays.fill(types, NO_TILE);
+    }
+
+    public void tilesAdded(Coordinate leftTopCorner, int size) {
+        Tile[][] tiles = board.getTiles();
+        for (int x = leftTopCorner.x(); x < leftTopCorner.x() + size; x++) {
+            for (int y = leftTopCorner.y(); y < leftTopCorner.y() + size; y++) {
+                Tile tile = tiles[x][y];
+                if (tile == null) {
+                    continue;
+                }
+                int cell = x * cols + y;
+                types[cell] = (byte) tile.getType().ordinal();
+                colors[cell] = (byte) tile.getColor().ordinal();
+                if (tile.getCardId() < Short.MIN_VALUE || tile.getCardId() > Short.MAX_VALUE) {
+                    throw new RuntimeException("Card id " + tile.getCardId() + " of the tile at " + x + ", " + y + " does not fit in the terrain, ids have to be between " + Short.MIN_VALUE + " and " + Short.MAX_VALUE);
+                }
+                cardIds[cell] = (short) tile.getCardId();
+                int mask = 0;
+                if (tile.hasWallUp()) {
+                    mask |= wallBit(PathFinder.Action.MOVE_NORTH);
+                }
+                if (tile.hasWallDown()) {
+                    mask |= wallBit(PathFinder.Action.MOVE_SOUTH);
+                }
+                if (tile.hasWallLeft()) {
+                    mask |= wallBit(PathFinder.Action.MOVE_WEST);
+                }
+                if (tile.hasWallRight()) {
+                    mask |= wallBit(PathFinder.Action.MOVE_EAST);
+                }
+                walls[cell] = (byte) mask;
+            }
+        }
+    }
+
+    public boolean hasTile(int cell) {
+        return types[cell] != NO_TILE;
+    }
+
+    // null if there is no tile
+    public TileType getType(int cell) {
+        return types[cell] == NO_TILE ? null : TYPES[types[cell]];
+    }
+
+    public Color getColor(int cell) {
+        return COLORS[colors[cell]];
+    }
+
+    public int getCardId(int cell) {
+        return cardIds[cell];
+    }
+
+    public boolean hasWall(int cell, PathFinder.Action move) {
+        return (walls[cell] & wallBit(move)) != 0;
+    }
+
+    // the cell one move away, -1 if it has no tile or a wall of either tile is in the way
+    public int step(int cell, PathFinder.Action move) {
+        int x = cell / cols;
+        int newX = x + move.dx();
+        int newY = cell - x * cols + move.dy();
+        if (newX < 0 || newX >= rows || newY < 0 || newY >= cols) {
+            return -1;
+        }
+        int next = newX * cols + newY;
+        // the move enters the next tile through the opposite side, north and south as well as west and east differ in the last bit
+        if (types[next] == NO_TILE || (walls[cell] & wallBit(move)) != 0 || (walls[next] & 1 << (move.ordinal() ^ 1)) != 0) {
+            return -1;
+        }
+        return next;
+    }
+
+    private static int wallBit(PathFinder.Action move) {
+        return 1 << move.ordinal();
+    }
+}
@@ -0,0 +1,37 @@
+package org.game.model.clock;
+
+import java.time.Instant;
+import java.util.function.BooleanSupplier;
+
+// source of time for one game: the sand timer, the thinking delays of the agents and the recorded timestamps
+public interface GameClock {
+    Instant now();
+
+    void sleep(long millis) throws InterruptedException;
+
+    // called by a thread that has to wait for another thread without sleeping for a fixed time
+    void onSpinWait() throws InterruptedException;
+
+    // sleeps until the condition holds or the time is up, whichever comes first, and returns whether the condition holds;
+    // the condition is checked again whenever signal() is called, so it must only change together with a signal
+    boolean await(BooleanSupplier condition, long millis) throws InterruptedException;
+
+    void signal();
+
+    // a participant is a thread whose progress the clock has to wait for before time can pass
+    void register();
+
+    void unregister();
+
+    /** Creates a thread registered as a participant for its whole lifetime, it has to be started by the caller */
+    default Thread newThread(Runnable task) {
+        register();
+        return new Thread(() -> {
+            try {
+                task.run();
+            } finally {
+                unregister();
+            }
+        });
+    }
+}
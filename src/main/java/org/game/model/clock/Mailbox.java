@@ -0,0 +1,37 @@
+package org.game.model.clock;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Events for one thread, posted by any thread. The owner waits for them on the game clock, so a simulated game can let
+ * the time pass while the owner has nothing to do, and an event posted meanwhile wakes it up before that time is up.
+ */
+public class Mailbox<E> {
+    private final GameClock clock;
+    private final Queue<E> events = new ConcurrentLinkedQueue<>();
+
+    public Mailbox(GameClock clock) {
+        this.clock = clock;
+    }
+
+    public void post(E event) {
+        events.add(event);
+        clock.signal();
+    }
+
+    // the next event without waiting, null if there is none
+    public E poll() {
+        return events.poll();
+    }
+
+    // the next event, waiting for one for at most the given time, null if none was posted in that time
+    public E take(long millis) throws InterruptedException {
+        E event = events.poll();
+        if (event != null || millis <= 0) {
+            return event;
+        }
+        clock.await(() -> !events.isEmpty(), millis);
+        return events.poll();
+    }
+}
@@ -0,0 +1,51 @@
+package org.game.model.clock;
+
+import java.time.Instant;
+import java.util.function.BooleanSupplier;
+
+// wall-clock time, the game runs as fast as it would with human players
+public class RealTimeClock implements GameClock {
+
+    @Override
+    public Instant now() {
+        return Instant.now();
+    }
+
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+        Thread.sleep(millis);
+    }
+
+    @Override
+    public synchronized boolean await(BooleanSupplier condition, long millis) throws InterruptedException {
+        long deadline = System.nanoTime() + millis * 1_000_000;
+        while (!condition.getAsBoolean()) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0) {
+                return false;
+            }
+            wait(Math.max(1, left / 1_000_000));
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized void signal() {
+        notifyAll();
+    }
+
+    @Override
+    public void onSpinWait() {
+        Thread.onSpinWait();
+    }
+
+    @Override
+    public void register() {
+        // nothing to wait for, time passes on its own
+    }
+
+    @Override
+    public void unregister() {
+        // nothing to wait for, time passes on its own
+    }
+}
@@ -0,0 +1,156 @@
+package org.game.model.clock;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Discrete-event clock: a sleep schedules a wake-up event on a virtual time line. Virtual time only moves
+ * once every registered participant is waiting on the clock, and then jumps straight to the earliest
+ * scheduled wake-up, so computing takes no game time and waiting takes no real time.
+ */
+public class SimulationClock implements GameClock {
+    private final Instant start;
+    private final PriorityQueue<Waiter> sleeping = new PriorityQueue<>(Comparator.comparingLong(w -> w.wakeUp));
+    private final List<Waiter> spinning = new ArrayList<>();
+    private long currentMillis = 0;
+    private long lastStampNanos = -1;
+    private int participants = 0;
+    private int waiting = 0;
+
+    public SimulationClock() {
+        this.start = Instant.now();
+    }
+
+    // every call returns a later instant than the previous one, so records made at the same virtual time keep their order
+    @Override
+    public synchronized Instant now() {
+        long nanos = Math.max(currentMillis * 1_000_000, lastStampNanos + 1);
+        lastStampNanos = nanos;
+        return start.plusNanos(nanos);
+    }
+
+    @Override
+    public synchronized void sleep(long millis) throws InterruptedException {
+        Waiter waiter = new Waiter(currentMillis + Math.max(millis, 0));
+        sleeping.add(waiter);
+        await(waiter);
+    }
+
+    @Override
+    public synchronized boolean await(BooleanSupplier condition, long millis) throws InterruptedException {
+        if (condition.getAsBoolean()) {
+            return true;
+        }
+        Waiter waiter = new Waiter(currentMillis + Math.max(millis, 0), condition);
+        sleeping.add(waiter);
+        await(waiter);
+        return condition.getAsBoolean();
+    }
+
+    // the waiters whose condition holds now count as running again before the signalling thread can wait itself,
+    // otherwise the time could pass while they still have something to do
+    @Override
+    public synchronized void signal() {
+        boolean woken = false;
+        for (Iterator<Waiter> iterator = sleeping.iterator(); iterator.hasNext(); ) {
+            Waiter waiter = iterator.next();
+            if (waiter.condition != null && waiter.condition.getAsBoolean()) {
+                iterator.remove();
+                wake(waiter);
+                woken = true;
+            }
+        }
+        if (woken) {
+            notifyAll();
+        }
+    }
+
+    // wait until the next event happens on the clock
+    @Override
+    public synchronized void onSpinWait() throws InterruptedException {
+        Waiter waiter = new Waiter(Long.MAX_VALUE);
+        spinning.add(waiter);
+        await(waiter);
+    }
+
+    @Override
+    public synchronized void register() {
+        participants++;
+    }
+
+    @Override
+    public synchronized void unregister() {
+        participants--;
+        advanceIfIdle();
+    }
+
+    public synchronized long getElapsedMillis() {
+        return currentMillis;
+    }
+
+    private void await(Waiter waiter) throws InterruptedException {
+        waiting++;
+        try {
+            advanceIfIdle();
+            while (!waiter.due) {
+                wait();
+            }
+        } finally {
+            if (!waiter.due) {
+                // interrupted before the wake-up happened
+                waiting--;
+                sleeping.remove(waiter);
+                spinning.remove(waiter);
+            }
+        }
+    }
+
+    private void advanceIfIdle() {
+        // a thread that has not registered is still counted while it waits on the clock
+        if (waiting == 0 || waiting < participants) {
+            return;
+        }
+        if (sleeping.isEmpty()) {
+            // only spinning threads are left, let a minimal amount of time pass
+            currentMillis++;
+        }
+        else {
+            currentMillis = Math.max(currentMillis, sleeping.peek().wakeUp);
+        }
+        // threads that are woken up count as running from now on, even before they get the monitor back
+        while (!sleeping.isEmpty() && sleeping.peek().wakeUp <= currentMillis) {
+            wake(sleeping.poll());
+        }
+        for (Waiter waiter : spinning) {
+            wake(waiter);
+        }
+        spinning.clear();
+        notifyAll();
+    }
+
+    private void wake(Waiter waiter) {
+        waiter.due = true;
+        waiting--;
+    }
+
+    private static class Waiter {
+        final long wakeUp;
+        // ends the wait before the wake-up once it holds, null for plain sleeps
+        final BooleanSupplier condition;
+        boolean due = false;
+
+        Waiter(long wakeUp) {
+            this(wakeUp, null);
+        }
+
+        Waiter(long wakeUp, BooleanSupplier condition) {
+            this.wakeUp = wakeUp;
+            this.condition = condition;
+        }
+    }
+}
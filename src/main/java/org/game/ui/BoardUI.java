@@ -17,13 +17,14 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-public class BoardUI extends JFrame {
+public class BoardUI extends JFrame implements GameView {
     private static final int TILE_SIZE = 22;
     private final JPanel[][] tilePanels;
     private LinePanel linePanel;
     private final Board board;
     private Map<TileType, ImageIcon> tileTypeImages;
     private final JPanel gridPanel;
+    private final ActionUIUpdater actionUIUpdater;
 
     private final int numberOfRows;
     private final int numberOfCols;
@@ -82,7 +83,7 @@ public class BoardUI extends JFrame {
                         bgColor = getColorForTile(tile);
                     }
                     else{
-                        bgColor = getColorForTileType(tile.getType(), tile);
+                        bgColor = getColorForTileType(tile.getType(), board.cellOf(i, j));
                     }
 
                     ImageIcon tileImage = tileTypeImages.get(tile.getType());
@@ -133,6 +134,8 @@ public class BoardUI extends JFrame {
         pack();
         setLocationRelativeTo(null);
         setVisible(true);
+
+        actionUIUpdater = new ActionUIUpdater(this);
     }
 
     private void loadImages() {
@@ -165,6 +168,7 @@ public class BoardUI extends JFrame {
         }
     }
 
+    @Override
     public void highlightPawn(Pawn pawn) {
         // Highlight the pawn's coordinate
         JPanel pawnTile = getTilePanelAt(pawn.getCoordinate());
@@ -195,6 +199,7 @@ public class BoardUI extends JFrame {
         repaint();
     }
 
+    @Override
     public void unhighlightPawn(Pawn pawn){
         if(Config.PRINT_EVERYTHING){
             System.out.println("Un-highlighting pawn at: " + pawn.getCoordinate());
@@ -221,12 +226,12 @@ public class BoardUI extends JFrame {
         repaint();
     }
 
-    private java.awt.Color getColorForTileType(TileType type, Tile tile) {
+    private java.awt.Color getColorForTileType(TileType type, int cell) {
         return switch (type) {
             case START -> java.awt.Color.WHITE;
             case OBSTACLE -> java.awt.Color.decode(Color.BROWN.getHexCode());
             case TIMER -> {
-                if (tile.isUsed()) {
+                if (board.getBitboards().isTimerUsed(cell)) {
                     yield java.awt.Color.decode(Color.DARK_RED.getHexCode());
                 }
                 yield java.awt.Color.decode(Color.RED.getHexCode());
@@ -255,6 +260,7 @@ public class BoardUI extends JFrame {
         return BorderFactory.createMatteBorder(top, left, bottom, right, java.awt.Color.decode(Color.BROWN.getHexCode()));
     }
 
+    @Override
     public void renderDiscoveredTiles(Coordinate corner) {
         int startX = corner.x();
         int startY = corner.y();
@@ -271,7 +277,7 @@ public class BoardUI extends JFrame {
                             bgColor = getColorForTile(tile);
                         }
                         else{
-                            bgColor = getColorForTileType(tile.getType(), tile);
+                            bgColor = getColorForTileType(tile.getType(), board.cellOf(boardX, boardY));
                         }
 
                         if(tile.hasEscalator()){
@@ -347,15 +353,26 @@ public class BoardUI extends JFrame {
         return tilePanels[coordinate.x()][coordinate.y()];
     }
 
+    @Override
     public void changeTimerColorToDark(Coordinate coordinate){
         // change color of timer tile to dark red
         Tile timerTile = board.getTileAt(coordinate);
         JPanel timerTilePanel = getTilePanelAt(coordinate);
-        java.awt.Color bgColor = getColorForTileType(timerTile.getType(), timerTile);
+        java.awt.Color bgColor = getColorForTileType(timerTile.getType(), board.cellOf(coordinate));
         timerTilePanel.setBackground(bgColor);
     }
 
     public JPanel getTilePanelAt(int x, int y) {
         return tilePanels[x][y];
     }
+
+    @Override
+    public void showDoSomething(List<ActionType> actions) {
+        actionUIUpdater.updateUI(actions);
+    }
+
+    @Override
+    public void close() {
+        SwingUtilities.invokeLater(this::dispose); // Close the window
+    }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package org.game.ui;
+
+import org.game.model.ActionType;
+import org.game.model.Coordinate;
+import org.game.model.Pawn;
+
+import java.util.List;
+
+// everything the game logic asks of a view, must not reference AWT so that headless games never load it
+public interface GameView {
+    void highlightPawn(Pawn pawn);
+
+    void unhighlightPawn(Pawn pawn);
+
+    void renderDiscoveredTiles(Coordinate corner);
+
+    void changeTimerColorToDark(Coordinate coordinate);
+
+    void showDoSomething(List<ActionType> actions);
+
+    void close();
+}
@@ -0,0 +1,35 @@
+package org.game.ui;
+
+import org.game.model.ActionType;
+import org.game.model.Coordinate;
+import org.game.model.Pawn;
+
+import java.util.List;
+
+// view for games run without a display, nothing is rendered
+public class HeadlessView implements GameView {
+
+    @Override
+    public void highlightPawn(Pawn pawn) {
+    }
+
+    @Override
+    public void unhighlightPawn(Pawn pawn) {
+    }
+
+    @Override
+    public void renderDiscoveredTiles(Coordinate corner) {
+    }
+
+    @Override
+    public void changeTimerColorToDark(Coordinate coordinate) {
+    }
+
+    @Override
+    public void showDoSomething(List<ActionType> actions) {
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -1,14 +1,14 @@
 package org.game.utils;
 
 import org.game.model.*;
+import org.game.model.AI.PathFinder;
 import org.game.model.AI.PayoffCalculator;
 import org.game.model.AI.PlayerType.AIPlayer;
 import org.game.model.AI.StateChangeListener;
 import org.game.model.Action;
+import org.game.model.board.Bitboards;
 import org.game.model.board.Board;
-import org.game.model.board.PawnManager;
-import org.game.ui.ActionUIUpdater;
-import org.game.ui.BoardUI;
+import org.game.ui.GameView;
 import org.game.utils.output.ActionWriter;
 import static org.game.model.ActionType.*;
 
@@ -20,19 +20,17 @@ import java.util.List;
 public class ActionDelegator {
     private final Game game;
     private final Board board;
-    private final BoardUI boardUI;
+    private final GameView gameView;
     private final ActionWriter actionWriter;
     private final PayoffCalculator payoffCalculator;
-    private final ActionUIUpdater actionUIUpdater;
     private final List<StateChangeListener> listeners = new ArrayList<>();
 
-    public ActionDelegator(Game game, BoardUI boardUI, ActionWriter actionWriter) {
+    public ActionDelegator(Game game, GameView gameView, ActionWriter actionWriter) {
         this.game = game;
         board = game.getBoard();
-        this.boardUI = boardUI;
+        this.gameView = gameView;
         this.actionWriter = actionWriter;
         this.payoffCalculator = new PayoffCalculator(board.getTimer());
-        this.actionUIUpdater = new ActionUIUpdater(boardUI);
         for(Player player : game.getPlayers()){
             if(player instanceof AIPlayer aiPlayer){
                 addStateChangeListener(aiPlayer);
@@ -40,13 +38,12 @@ public class ActionDelegator {
         }
     }
 
-    public ActionDelegator(Game game, BoardUI boardUI) {
+    public ActionDelegator(Game game, GameView gameView) {
         this.game = game;
         board = game.getBoard();
-        this.boardUI = boardUI;
+        this.gameView = gameView;
         actionWriter = null;
         this.payoffCalculator = new PayoffCalculator(board.getTimer());
-        this.actionUIUpdater = new ActionUIUpdater(boardUI);
     }
 
     private void addStateChangeListener(StateChangeListener listener) {
@@ -70,7 +67,7 @@ public class ActionDelegator {
 
                 if(board.isPawnAtTimerTile(updatedPawn)){
                     onTimerFlipped(board.getTimer().getTimeLeftInTimer());
-                    boardUI.changeTimerColorToDark(updatedPawn.getCoordinate());
+                    gameView.changeTimerColorToDark(updatedPawn.getCoordinate());
                 }
             }
         }
@@ -112,7 +109,7 @@ public class ActionDelegator {
             int discoveredCardId = game.discoverRandomCard(pawn);
             // re-render the board
             if(discoveredCardId != 0){
-                boardUI.renderDiscoveredTiles(corner);
+                gameView.renderDiscoveredTiles(corner);
                 if(actionWriter != null) actionWriter.recordDiscover(pawnColor, discoveredCardId);
                 for (StateChangeListener listener : listeners) {
                     listener.onDiscovered(pawn);
@@ -134,7 +131,7 @@ public class ActionDelegator {
             int discoveredCardId = game.discoverGivenCard(pawn, cardId);
             // re-render the board
             if(discoveredCardId != 0){
-                boardUI.renderDiscoveredTiles(corner);
+                gameView.renderDiscoveredTiles(corner);
                 if(actionWriter != null) actionWriter.recordDiscover(pawnColor, discoveredCardId);
             }
             return true;
@@ -151,7 +148,7 @@ public class ActionDelegator {
             return false;
         }
         Coordinate vortexCoordinate = board.getVortexCoordinateById(vortexNumber, pawnColor);
-        Action action = new Action(VORTEX, vortexCoordinate);
+        Action action = Action.vortex(vortexCoordinate);
         Pawn previousPawn = new Pawn(board.getPawnByColor(pawnColor));
         Pawn updatedPawn = board.useVortex(pawnColor, vortexNumber);
         if(updatedPawn.getCoordinate().equals(previousPawn.getCoordinate())){
@@ -192,17 +189,20 @@ public class ActionDelegator {
         if(Config.PRINT_EVERYTHING){
             board.printAllPawns();
         }
-        boardUI.unhighlightPawn(previousPawn);
-        boardUI.highlightPawn(updatedPawn);
+        gameView.unhighlightPawn(previousPawn);
+        gameView.highlightPawn(updatedPawn);
     }
 
     public Pawn getBlockingPawn(Pawn pawn, Action action, Coordinate vortexCoordinate){
+        int cell = board.cellOf(pawn.getCoordinate());
+        Bitboards bitboards = board.getBitboards();
         return switch (action.getType()) {
-            case MOVE_EAST -> board.getPawnAt(pawn.getCoordinate().move(0, 1));
-            case MOVE_WEST -> board.getPawnAt(pawn.getCoordinate().move(0, -1));
-            case MOVE_NORTH -> board.getPawnAt(pawn.getCoordinate().move(-1, 0));
-            case MOVE_SOUTH -> board.getPawnAt(pawn.getCoordinate().move(1, 0));
-            case ESCALATOR -> board.getPawnAt(PawnManager.getOtherSideOfEscalator(pawn.getCoordinate()));
+            // no pawn blocks a move off the board (getPawnAt(-1) is null)
+            case MOVE_EAST -> board.getPawnAt(bitboards.neighbourOf(cell, PathFinder.Action.MOVE_EAST));
+            case MOVE_WEST -> board.getPawnAt(bitboards.neighbourOf(cell, PathFinder.Action.MOVE_WEST));
+            case MOVE_NORTH -> board.getPawnAt(bitboards.neighbourOf(cell, PathFinder.Action.MOVE_NORTH));
+            case MOVE_SOUTH -> board.getPawnAt(bitboards.neighbourOf(cell, PathFinder.Action.MOVE_SOUTH));
+            case ESCALATOR -> board.getPawnAt(board.getJumpIndex().getOtherSideOfEscalator(cell));
             case VORTEX -> board.getPawnAt(vortexCoordinate);
             default -> null;
         };
@@ -236,7 +236,7 @@ public class ActionDelegator {
     }
 
     public void placeDoSomethingUI(List<ActionType> actions){
-        actionUIUpdater.updateUI(actions);
+        gameView.showDoSomething(actions);
     }
 
     public boolean performRandomAvailableActionFromActionSet(List<ActionType> actions, int heuristicType){
@@ -259,7 +259,7 @@ public class ActionDelegator {
                 if(Config.PRINT_EVERYTHING) {
                     System.out.println("Checking if actionType " + actionType + " is performable by pawn " + color);
                 }
-                Action action = new Action(actionType);
+                Action action = Action.of(actionType);
                 if(isPerformable(action, color, heuristicType)){
                     switch (actionType){
                         case DISCOVER: {
@@ -306,20 +306,20 @@ public class ActionDelegator {
             return false;
         }
         Coordinate pawnCoordinate = board.getPawnByColor(pawnColor).getCoordinate();
-        Tile currentTile = board.getTileAt(pawnCoordinate);
+        int pawnCell = board.getBitboards().cellOf(pawnCoordinate);
         switch (action.getType()){
             case DISCOVER: {
-                return (currentTile.getType() == TileType.DISCOVERY && pawnColor == currentTile.getColor());
+                return (board.getBitboards().isType(pawnCell, TileType.DISCOVERY) && board.getBitboards().isColor(pawnCell, pawnColor));
             }
             case VORTEX: {
                 if(action.getVortexCoordinate() == null){
                     // vortex to the closest one (triggered by random action)
                     Coordinate closestVortex = board.getClosestVortex(pawnCoordinate, pawnColor, heuristicType);
-                    return !board.getTileAt(closestVortex).isOccupied();
+                    return !board.getBitboards().isOccupied(board.getBitboards().cellOf(closestVortex));
                 }
                 else{
                     // vortex to a specific coordinate
-                    return !board.getTileAt(action.getVortexCoordinate()).isOccupied();
+                    return !board.getBitboards().isOccupied(board.getBitboards().cellOf(action.getVortexCoordinate()));
                 }
             }
             case ESCALATOR, MOVE_EAST, MOVE_NORTH, MOVE_SOUTH, MOVE_WEST: {
@@ -330,42 +330,44 @@ public class ActionDelegator {
     }
 
     private boolean isMovePerformable(ActionType action, Color pawnColor){
-        Coordinate pawnCoordinate = board.getPawnByColor(pawnColor).getCoordinate();
-        Tile currentTile = board.getTileAt(pawnCoordinate);
+        int pawnCell = board.cellOf(board.getPawnByColor(pawnColor).getCoordinate());
+        Bitboards bitboards = board.getBitboards();
         switch (action){
             case ESCALATOR: {
-                boolean isCurrentEscalator = currentTile.hasEscalator();
+                boolean isCurrentEscalator = board.getTileAt(pawnCell).hasEscalator();
                 if(!isCurrentEscalator){
                     return false;
                 }
-                Coordinate otherSide = PawnManager.getOtherSideOfEscalator(pawnCoordinate);
-                boolean isOtherSideOccupied = board.getTileAt(otherSide).isOccupied();
-                return !isOtherSideOccupied;
+                int otherSide = board.getJumpIndex().getOtherSideOfEscalator(pawnCell);
+                // the other end of the escalator may not be discovered yet
+                return otherSide != -1 && !bitboards.isOccupied(otherSide);
             }
 
             case MOVE_EAST: {
-                if(board.getTileAt(pawnCoordinate.move(0, 1)) == null) return false;
-                return !board.getTileAt(pawnCoordinate.move(0, 1)).isOccupied();
+                return isFreeNeighbour(bitboards, pawnCell, PathFinder.Action.MOVE_EAST);
             }
 
             case MOVE_NORTH: {
-                if(board.getTileAt(pawnCoordinate.move(-1, 0)) == null) return false;
-                return !board.getTileAt(pawnCoordinate.move(-1, 0)).isOccupied();
+                return isFreeNeighbour(bitboards, pawnCell, PathFinder.Action.MOVE_NORTH);
             }
 
             case MOVE_SOUTH: {
-                if(board.getTileAt(pawnCoordinate.move(1, 0)) == null) return false;
-                return !board.getTileAt(pawnCoordinate.move(1, 0)).isOccupied();
+                return isFreeNeighbour(bitboards, pawnCell, PathFinder.Action.MOVE_SOUTH);
             }
 
             case MOVE_WEST: {
-                if(board.getTileAt(pawnCoordinate.move(0, -1)) == null) return false;
-                return !board.getTileAt(pawnCoordinate.move(0, -1)).isOccupied();
+                return isFreeNeighbour(bitboards, pawnCell, PathFinder.Action.MOVE_WEST);
             }
         }
         return false;
     }
 
+    // the cell next to the pawn is on the board and has a tile without a pawn
+    private boolean isFreeNeighbour(Bitboards bitboards, int pawnCell, PathFinder.Action move){
+        int next = bitboards.neighbourOf(pawnCell, move);
+        return next != -1 && bitboards.isFree(next);
+    }
+
     public Pawn getPawnByColor(Color color){
         return board.getPawnByColor(color);
     }
@@ -0,0 +1,191 @@
+package org.game.utils;
+
+import org.game.model.ActionType;
+import org.game.model.Card;
+import org.game.model.Color;
+import org.game.model.Tile;
+import org.game.model.TileType;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * The cards and the action cards of the game, loaded once per JVM and shared by all games: cards and their tiles
+ * never change, every game takes its own shuffled copy of the lists.
+ * They are read from the binary catalog (input/catalog.bin, written by main from the JSON files) if it was written
+ * from the current tiles.json and actions.json, otherwise they are parsed from the JSON files.
+ */
+public final class Catalog {
+    private static final String BINARY_PATH = "input/catalog.bin";
+    private static final String TILES_PATH = "input/tiles.json";
+    private static final String ACTIONS_PATH = "input/actions.json";
+    private static final int MAGIC = 0x4D4D4331;
+    private static volatile Catalog instance;
+
+    private final List<Card> cards;
+    // action cards of each number of players, one list of actions per player
+    private final Map<Integer, List<List<ActionType>>> actionCards;
+
+    private Catalog(List<Card> cards, Map<Integer, List<List<ActionType>>> actionCards) {
+        this.cards = List.copyOf(cards);
+        this.actionCards = actionCards;
+    }
+
+    public static Catalog get() {
+        Catalog catalog = instance;
+        if (catalog == null) {
+            synchronized (Catalog.class) {
+                catalog = instance;
+                if (catalog == null) {
+                    catalog = load();
+                    instance = catalog;
+                }
+            }
+        }
+        return catalog;
+    }
+
+    // must not be changed, games copy it before shuffling
+    public List<Card> getCards() {
+        return cards;
+    }
+
+    // the action cards for the number of players (none if the game is not for that many), must not be changed
+    public List<List<ActionType>> getActionCards(int numberOfPlayers) {
+        return actionCards.getOrDefault(numberOfPlayers, List.of());
+    }
+
+    private static Catalog load() {
+        long checksum = checksum(readResource(TILES_PATH), readResource(ACTIONS_PATH));
+        byte[] binary = readResource(BINARY_PATH);
+        if (binary != null) {
+            try {
+                Catalog catalog = read(new DataInputStream(new ByteArrayInputStream(binary)), checksum);
+                if (catalog != null) {
+                    return catalog;
+                }
+                if (Config.PRINT_EVERYTHING) {
+                    System.out.println(BINARY_PATH + " was not written from the current JSON files, parsing them instead");
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read " + BINARY_PATH, e);
+            }
+        }
+        JsonReader jsonReader = new JsonReader();
+        return new Catalog(jsonReader.loadCardsFromJson(), jsonReader.loadActionCardsFromJson());
+    }
+
+    // null if the catalog was written from other JSON files
+    private static Catalog read(DataInputStream in, long checksum) throws IOException {
+        if (in.readInt() != MAGIC || in.readLong() != checksum) {
+            return null;
+        }
+        TileType[] types = TileType.values();
+        Color[] colors = Color.values();
+        ActionType[] actions = ActionType.values();
+        List<Card> cards = new ArrayList<>();
+        int cardCount = in.readInt();
+        for (int c = 0; c < cardCount; c++) {
+            int id = in.readInt();
+            Tile[][] tiles = new Tile[in.readUnsignedByte()][in.readUnsignedByte()];
+            for (Tile[] row : tiles) {
+                for (int j = 0; j < row.length; j++) {
+                    TileType type = types[in.readUnsignedByte()];
+                    Color color = colors[in.readUnsignedByte()];
+                    int walls = in.readUnsignedByte();
+                    String escalator = in.readUTF();
+                    row[j] = new Tile(type, color, (walls & 1) != 0, (walls & 2) != 0, (walls & 4) != 0, (walls & 8) != 0, id,
+                            escalator.isEmpty() ? null : escalator);
+                }
+            }
+            cards.add(new Card(id, tiles));
+        }
+        Map<Integer, List<List<ActionType>>> actionCards = new LinkedHashMap<>();
+        int groupCount = in.readInt();
+        for (int g = 0; g < groupCount; g++) {
+            int numberOfPlayers = in.readInt();
+            List<List<ActionType>> playerActions = new ArrayList<>();
+            int playerCount = in.readInt();
+            for (int p = 0; p < playerCount; p++) {
+                List<ActionType> playerCard = new ArrayList<>();
+                int actionCount = in.readUnsignedByte();
+                for (int a = 0; a < actionCount; a++) {
+                    playerCard.add(actions[in.readUnsignedByte()]);
+                }
+                playerActions.add(List.copyOf(playerCard));
+            }
+            actionCards.put(numberOfPlayers, List.copyOf(playerActions));
+        }
+        return new Catalog(cards, actionCards);
+    }
+
+    private void write(DataOutputStream out, long checksum) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeLong(checksum);
+        out.writeInt(cards.size());
+        for (Card card : cards) {
+            Tile[][] tiles = card.getTiles();
+            out.writeInt(card.getId());
+            out.writeByte(tiles.length);
+            out.writeByte(tiles[0].length);
+            for (Tile[] row : tiles) {
+                for (Tile tile : row) {
+                    out.writeByte(tile.getType().ordinal());
+                    out.writeByte(tile.getColor().ordinal());
+                    out.writeByte((tile.hasWallUp() ? 1 : 0) | (tile.hasWallDown() ? 2 : 0) | (tile.hasWallLeft() ? 4 : 0) | (tile.hasWallRight() ? 8 : 0));
+                    out.writeUTF(tile.hasEscalator() ? tile.getEscalator() : "");
+                }
+            }
+        }
+        out.writeInt(actionCards.size());
+        for (Map.Entry<Integer, List<List<ActionType>>> entry : actionCards.entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeInt(entry.getValue().size());
+            for (List<ActionType> playerCard : entry.getValue()) {
+                out.writeByte(playerCard.size());
+                for (ActionType action : playerCard) {
+                    out.writeByte(action.ordinal());
+                }
+            }
+        }
+    }
+
+    // the enum constants are part of the checksum as well, their ordinals are what the binary catalog stores
+    private static long checksum(byte[] tiles, byte[] actions) {
+        CRC32 crc = new CRC32();
+        crc.update(tiles == null ? new byte[0] : tiles);
+        crc.update(actions == null ? new byte[0] : actions);
+        crc.update((List.of(TileType.values()) + "" + List.of(Color.values()) + List.of(ActionType.values())).getBytes());
+        return crc.getValue();
+    }
+
+    // null if there is no such resource
+    private static byte[] readResource(String path) {
+        try (InputStream inputStream = Catalog.class.getClassLoader().getResourceAsStream(path)) {
+            return inputStream == null ? null : inputStream.readAllBytes();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read " + path, e);
+        }
+    }
+
+    // writes the binary catalog from the JSON files to the given file, usually src/main/resources/input/catalog.bin
+    public static void main(String[] args) throws IOException {
+        JsonReader jsonReader = new JsonReader();
+        Catalog catalog = new Catalog(jsonReader.loadCardsFromJson(), jsonReader.loadActionCardsFromJson());
+        Path path = Path.of(args.length > 0 ? args[0] : "src/main/resources/" + BINARY_PATH);
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(path))) {
+            catalog.write(out, checksum(readResource(TILES_PATH), readResource(ACTIONS_PATH)));
+        }
+        System.out.println("Wrote " + catalog.cards.size() + " cards to " + path);
+    }
+}
@@ -2,4 +2,7 @@ package org.game.utils;
 
 public class Config {
     public static final boolean PRINT_EVERYTHING = false; // Set to true to enable detailed logging
+    public static final int BOARD_SIZE = 43; // rows and columns of the playing area unless the game parameters set boardSize, the start card is in the middle; with the empty border the board is 45x45
+    public static final int PATH_CACHE_SIZE = 4096; // paths kept per game, least recently used are dropped first
+    public static final int LANDMARK_COUNT = 8; // landmarks of the ALT heuristic (heuristicType 2), one per placed card
 }
@@ -24,7 +24,6 @@ public class InputStringRenderer {
             return;
         }
         String colorString = String.valueOf(input.charAt(0));
-        String actionString = String.valueOf(input.charAt(1));
         int optionalNumber = 0;
         try {
             if (input.length() == 3) {
@@ -44,16 +43,7 @@ public class InputStringRenderer {
             case "g" -> Color.GREEN;
             default -> null;
         };
-        ActionType actionType = switch (actionString) {
-            case "n" -> MOVE_NORTH;
-            case "s" -> MOVE_SOUTH;
-            case "w" -> MOVE_WEST;
-            case "e" -> MOVE_EAST;
-            case "d" -> DISCOVER;
-            case "v" -> VORTEX;
-            case "x" -> ESCALATOR;
-            default -> null;
-        };
+        ActionType actionType = ActionType.fromCode(input.charAt(1));
 
         //
         if ((optionalNumber != 0 &&  actionType != VORTEX && actionType != DISCOVER) || (optionalNumber == 0 && actionType == VORTEX)) {
@@ -74,7 +64,7 @@ public class InputStringRenderer {
         else
 
         if (actionType != null && pawnColor != null && optionalNumber == 0) {
-            Action action = new Action(actionType);
+            Action action = Action.of(actionType);
             actionDelegator.movePawn(pawnColor, action);
         }
         // optionalNumber != 0
@@ -16,6 +16,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -103,8 +104,8 @@ public class JsonReader {
         return new Card(id, tiles);
     }
 
-    public List<Player> loadPlayersFromJson(int numPlayers, List<AIPlayerType> aiPlayerTypes, Board board) {
-        int aiPlayersLeft = aiPlayerTypes.size();
+    // action cards of each number of players in actions.json, one list of actions per player
+    public Map<Integer, List<List<ActionType>>> loadActionCardsFromJson() {
         ObjectMapper objectMapper = new ObjectMapper();
         String filePath = "input/actions.json";
         try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(filePath)) {
@@ -117,43 +118,52 @@ public class JsonReader {
                     new TypeReference<>() {}
             );
 
-            List<Player> players = new ArrayList<>();
+            Map<Integer, List<List<ActionType>>> actionCardsByPlayers = new LinkedHashMap<>();
             for (Map<String, Object> playerData : playersData) {
                 int numberOfPlayers = (Integer) playerData.get("players");
                 List<List<String>> actionCards = (List<List<String>>) playerData.get("cards");
-                // shuffle actionCards
-                Collections.shuffle(actionCards);
-
-                // only continue if numberOfPlayers == numPlayers
-                if (numberOfPlayers == numPlayers) {
-                    for (List<String> actionCardList : actionCards) {
-                        List<ActionType> actions = new ArrayList<>();
-                        for (String actionString : actionCardList) {
-                            actions.add(ActionType.valueOf(actionString));
-                        }
-                        if(aiPlayersLeft > 0){
-                            // add the next in the aiPlayerTypes list
-                            AIPlayerType playerType =  aiPlayerTypes.get(aiPlayerTypes.size() - aiPlayersLeft);
-                            switch (playerType) {
-                                case REACTIVE -> players.add(new AIPlayer(actions, "AI player: " +playerType + "(" + aiPlayersLeft + ")", board, AIPlayerType.REACTIVE));
-                                case SHORT_FUSE -> players.add(new AIPlayer(actions, "AI player: " +playerType + "(" + aiPlayersLeft + ")", board, AIPlayerType.SHORT_FUSE));
-                                case BASIC -> players.add(new AIPlayer(actions, "AI player: " + playerType + "(" + aiPlayersLeft + ")", board, AIPlayerType.BASIC));
-                                case RANDOM -> players.add(new RandomPlayer(actions, "AI player: " +playerType + "(" + aiPlayersLeft + ")", AIPlayerType.RANDOM));
-                            }
-                            aiPlayersLeft--;
-                        }
-                        else{
-                            players.add(new Player(actions, "Human player"));
-                        }
+                List<List<ActionType>> playerActions = new ArrayList<>();
+                for (List<String> actionCardList : actionCards) {
+                    List<ActionType> actions = new ArrayList<>();
+                    for (String actionString : actionCardList) {
+                        actions.add(ActionType.valueOf(actionString));
                     }
-                    break; // exit the loop once we've found the matching number of players
+                    playerActions.add(List.copyOf(actions));
                 }
+                // the first entry for a number of players is the one used
+                actionCardsByPlayers.putIfAbsent(numberOfPlayers, List.copyOf(playerActions));
             }
-
-            return players;
+            return actionCardsByPlayers;
 
         } catch (IOException e) {
             throw new RuntimeException("Failed to load players from JSON", e);
         }
     }
+
+    public List<Player> loadPlayersFromJson(int numPlayers, List<AIPlayerType> aiPlayerTypes, Board board) {
+        int aiPlayersLeft = aiPlayerTypes.size();
+        // shuffle actionCards
+        List<List<ActionType>> actionCards = new ArrayList<>(Catalog.get().getActionCards(numPlayers));
+        Collections.shuffle(actionCards);
+
+        List<Player> players = new ArrayList<>();
+        for (List<ActionType> actionCard : actionCards) {
+            List<ActionType> actions = new ArrayList<>(actionCard);
+            if(aiPlayersLeft > 0){
+                // add the next in the aiPlayerTypes list
+                AIPlayerType playerType =  aiPlayerTypes.get(aiPlayerTypes.size() - aiPlayersLeft);
+                switch (playerType) {
+                    case REACTIVE -> players.add(new AIPlayer(actions, "AI player: " +playerType + "(" + aiPlayersLeft + ")", board, AIPlayerType.REACTIVE));
+                    case SHORT_FUSE -> players.add(new AIPlayer(actions, "AI player: " +playerType + "(" + aiPlayersLeft + ")", board, AIPlayerType.SHORT_FUSE));
+                    case BASIC -> players.add(new AIPlayer(actions, "AI player: " + playerType + "(" + aiPlayersLeft + ")", board, AIPlayerType.BASIC));
+                    case RANDOM -> players.add(new RandomPlayer(actions, "AI player: " +playerType + "(" + aiPlayersLeft + ")", AIPlayerType.RANDOM, board.getClock()));
+                }
+                aiPlayersLeft--;
+            }
+            else{
+                players.add(new Player(actions, "Human player"));
+            }
+        }
+        return players;
+    }
 }
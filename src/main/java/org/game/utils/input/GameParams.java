@@ -1,12 +1,15 @@
 package org.game.utils.input;
 
 import org.game.model.AI.PlayerType.AIPlayerType;
+import org.game.utils.Config;
 
 import java.util.List;
 
 public class GameParams {
     private int numberOfPlayers;
     private List<AIPlayerType> aiPlayers;
+    // optional, for decks that need more room than the default board
+    private int boardSize;
 
     public int getNumberOfPlayers() {
         return numberOfPlayers;
@@ -14,5 +17,8 @@ public class GameParams {
     public List<AIPlayerType> getAiPlayers() {
         return aiPlayers;
     }
+    public int getBoardSize() {
+        return boardSize > 0 ? boardSize : Config.BOARD_SIZE;
+    }
 
 }
\ No newline at end of file
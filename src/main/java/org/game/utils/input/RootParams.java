@@ -6,6 +6,9 @@ public class RootParams {
     private String mode;
     private String gameName;
     private int replayRun;
+    private String clock = "real";
+    private boolean headless;
+    private int parallelGames = 1;
     private List<GameParams> games;
 
     public List<GameParams> getGames() {
@@ -23,4 +26,16 @@ public class RootParams {
     public int getReplayRun() {
         return replayRun;
     }
+
+    public String getClock() {
+        return clock;
+    }
+
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    public int getParallelGames() {
+        return parallelGames;
+    }
 }
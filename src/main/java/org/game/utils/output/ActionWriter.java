@@ -4,20 +4,23 @@ import org.game.model.Action;
 import org.game.model.ActionType;
 import org.game.model.Color;
 import org.game.model.Pawn;
+import org.game.model.clock.GameClock;
 import org.game.utils.input.GameParams;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
-import java.time.Instant;
 import java.util.List;
 
+// records are made by the threads of all the players of one game
 public class ActionWriter {
     private final String filePath;
     private final GameRecord gameRecord;
+    private final GameClock clock;
 
-    public ActionWriter(String folderName, String fileName, GameParams gameParams, List<Pawn> allPawns){
+    public ActionWriter(String folderName, String fileName, GameParams gameParams, List<Pawn> allPawns, GameClock clock){
+        this.clock = clock;
         filePath = "output/" + folderName + "/" + fileName + ".json";
         gameRecord = new GameRecord(gameParams);
         initializePawnPositions(allPawns);
@@ -61,39 +64,35 @@ public class ActionWriter {
         }
     }
 
-    public void recordMove(Color pawnColor, Action action){
+    public synchronized void recordMove(Color pawnColor, Action action){
         String color = getColor(pawnColor);
-        String actionString = switch (action.getType()) {
-            case MOVE_NORTH -> "n";
-            case MOVE_SOUTH -> "s";
-            case MOVE_WEST -> "w";
-            case MOVE_EAST -> "e";
-            case ESCALATOR -> "x";
-            default -> "";
+        // vortexes and discoveries are recorded with their number by recordVortex and recordDiscover
+        String record = switch (action.getType()) {
+            case VORTEX, DISCOVER -> color;
+            default -> color + action.getType().getCode();
         };
-        String record = color + actionString;
-        gameRecord.addMove(Instant.now(), record);
+        gameRecord.addMove(clock.now(), record);
     }
 
-    public void close(){
+    public synchronized void close(){
         writeGameRecordToFile();
     }
 
-    public void recordVortex(Color pawnColor, int vortexNumber){
+    public synchronized void recordVortex(Color pawnColor, int vortexNumber){
         String color = getColor(pawnColor);
-        String record = color + "v" + vortexNumber;
-        gameRecord.addMove(Instant.now(), record);
+        String record = color + ActionType.VORTEX.getCode() + vortexNumber;
+        gameRecord.addMove(clock.now(), record);
     }
 
-    public void recordDiscover(Color pawnColor, int cardId){
+    public synchronized void recordDiscover(Color pawnColor, int cardId){
         String color = getColor(pawnColor);
-        String record = color + "d" + cardId;
-        gameRecord.addMove(Instant.now(), record);
+        String record = color + ActionType.DISCOVER.getCode() + cardId;
+        gameRecord.addMove(clock.now(), record);
     }
 
-    public void recordDoSomething(List<ActionType> actions){
+    public synchronized void recordDoSomething(List<ActionType> actions){
         String actionString = actions.toString();
-        gameRecord.addDoSomething(Instant.now(), actionString);
+        gameRecord.addDoSomething(clock.now(), actionString);
     }
 
     private String getColor(Color color){
@@ -1,6 +1,5 @@
 package org.game.utils.output;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.game.utils.input.GameParams;
 
@@ -11,6 +10,9 @@ import java.nio.file.StandardOpenOption;
 
 public class RunOverviewWriter {
     private final String filePath;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // results of this run, games running in parallel report into the same list
+    private final GameResultList gameResults = new GameResultList();
 
     public RunOverviewWriter(String gameName){
         filePath = "output/" + gameName + "/" + gameName + "_overview.json";
@@ -35,25 +37,12 @@ public class RunOverviewWriter {
         }
     }
 
-    public void writeGameResult(GameParams gameParams, boolean gameWon) {
+    public synchronized void writeGameResult(GameParams gameParams, boolean gameWon) {
         Path path = Path.of(filePath);
-        ObjectMapper objectMapper = new ObjectMapper();
-        GameResult gameResult = new GameResult(gameParams, gameWon);
+        gameResults.add(new GameResult(gameParams, gameWon));
 
         try {
-            // Read existing content or initialize an empty list
-            GameResultList gameResults;
-            if (Files.exists(path) && Files.size(path) > 0) {
-                String existingContent = Files.readString(path);
-                gameResults = objectMapper.readValue(existingContent, new TypeReference<>() {});
-            } else {
-                gameResults = new GameResultList();
-            }
-
-            // Add the new GameResult
-            gameResults.add(gameResult);
-
-            // Write the updated list back to the file
+            // Write the whole list, the file always holds all the results reported so far
             String jsonContent = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(gameResults);
             Files.writeString(path, jsonContent, StandardOpenOption.TRUNCATE_EXISTING);
 
@@ -61,4 +50,4 @@ public class RunOverviewWriter {
             throw new RuntimeException("Could not write game record to file: " + filePath, e);
         }
     }
-}
+}
\ No newline at end of file